@@ -34,6 +34,7 @@ CREATE TABLE accounts (
                           balance DECIMAL(15, 2) DEFAULT 0.00,
                           opened_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                           status ENUM('ACTIVE', 'INACTIVE', 'CLOSED') DEFAULT 'ACTIVE',
+                          version BIGINT NOT NULL DEFAULT 0,
                           FOREIGN KEY (customer_id) REFERENCES customers(customer_id) ON DELETE CASCADE,
                           FOREIGN KEY (branch_id) REFERENCES branches(branch_id) ON DELETE RESTRICT
 );
@@ -43,6 +44,7 @@ CREATE TABLE transactions (
                               transaction_id INT PRIMARY KEY AUTO_INCREMENT,
                               account_id INT NOT NULL,
                               transaction_type ENUM('DEPOSIT', 'WITHDRAWAL', 'TRANSFER', 'PAYMENT') NOT NULL,
+                              direction ENUM('CREDIT', 'DEBIT'),
                               amount DECIMAL(15, 2) NOT NULL,
                               transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                               description VARCHAR(255),
@@ -51,71 +53,186 @@ CREATE TABLE transactions (
                               FOREIGN KEY (target_account_id) REFERENCES accounts(account_id) ON DELETE SET NULL
 );
 
+-- ID allocator shared by the application (Hibernate pooled-lo table generator) and transfer_money.
+-- next_val is the next free ID; allocators reserve a block by advancing it under a row lock.
+CREATE TABLE id_generators (
+                               sequence_name VARCHAR(64) PRIMARY KEY,
+                               next_val BIGINT NOT NULL
+);
+
+-- Seed above any existing rows when migrating an existing database
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'branches', COALESCE(MAX(branch_id), 0) + 1 FROM branches
+UNION ALL
+SELECT 'customers', COALESCE(MAX(customer_id), 0) + 1 FROM customers
+UNION ALL
+SELECT 'accounts', COALESCE(MAX(account_id), 0) + 1 FROM accounts
+UNION ALL
+SELECT 'transactions', COALESCE(MAX(transaction_id), 0) + 1 FROM transactions;
+
+-- Per-shard flush position of the optional in-memory ledger (LedgerEngine); advanced in the same
+-- transaction as the flushed rows so WAL replay after a crash applies exactly what is missing
+CREATE TABLE ledger_checkpoints (
+                                    shard_id INT PRIMARY KEY,
+                                    flushed_sequence BIGINT NOT NULL
+);
+
+-- Databases created before transactions.direction existed: run migrations/001_transaction_direction.sql
+
+-- End-of-day balances (BalanceSnapshotService): balance includes every transaction dated before
+-- snapshot_date + 1 day. Point-in-time queries start from the latest snapshot before the asked day
+CREATE TABLE balance_snapshots (
+                                   account_id INT NOT NULL,
+                                   snapshot_date DATE NOT NULL,
+                                   balance DECIMAL(15, 2) NOT NULL,
+                                   PRIMARY KEY (account_id, snapshot_date),
+                                   FOREIGN KEY (account_id) REFERENCES accounts(account_id) ON DELETE CASCADE
+);
+
+-- Per-branch, per-day, per-type transaction rollups (BranchStatsAggregator): incremented shortly after
+-- each commit and recomputed from transactions for the previous day every night
+CREATE TABLE branch_daily_stats (
+                                    branch_id INT NOT NULL,
+                                    stat_date DATE NOT NULL,
+                                    transaction_type VARCHAR(20) NOT NULL,
+                                    transaction_count BIGINT NOT NULL,
+                                    total_amount DECIMAL(19, 2) NOT NULL,
+                                    min_amount DECIMAL(15, 2) NOT NULL,
+                                    max_amount DECIMAL(15, 2) NOT NULL,
+                                    PRIMARY KEY (branch_id, stat_date, transaction_type),
+                                    FOREIGN KEY (branch_id) REFERENCES branches(branch_id) ON DELETE CASCADE
+);
+
+-- Idempotency-Key claims and results for deposit/withdrawal/transfer; rows are purged after the TTL
+CREATE TABLE idempotency_keys (
+                                  idempotency_key VARCHAR(100) PRIMARY KEY,
+                                  request_hash VARCHAR(64) NOT NULL,
+                                  transaction_id BIGINT,
+                                  created_at DATETIME NOT NULL,
+                                  INDEX idx_idempotency_created (created_at)
+);
+
+-- Transactional outbox: one row per transactions row, written in the same DB transaction and deleted
+-- once OutboxRelay has published it. No foreign keys, so events outlive deleted accounts until relayed
+CREATE TABLE outbox_events (
+                               event_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                               transaction_id BIGINT NOT NULL,
+                               account_id INT NOT NULL,
+                               transaction_type VARCHAR(20) NOT NULL,
+                               direction VARCHAR(10) NOT NULL,
+                               amount DECIMAL(15, 2) NOT NULL,
+                               transaction_date DATETIME NOT NULL,
+                               created_at DATETIME NOT NULL
+);
+
 -- Query Optimization
 -- Create indexes for better query performance
 CREATE INDEX idx_customer_email ON customers(email);
 CREATE INDEX idx_account_number ON accounts(account_number);
-CREATE INDEX idx_transaction_date ON transactions(transaction_date);
-
--- Create a view for account summary
-CREATE VIEW account_summary AS
-SELECT
-    a.account_id,
-    a.account_number,
-    a.account_type,
-    a.balance,
-    c.first_name,
-    c.last_name,
-    b.branch_name
+-- Keyset pagination seeks on (transaction_date, transaction_id), optionally scoped to one account
+CREATE INDEX idx_transactions_account_date ON transactions(account_id, transaction_date, transaction_id);
+CREATE INDEX idx_transactions_date ON transactions(transaction_date, transaction_id);
+
+-- Materialized account summary: one row per account, maintained by the application in the same
+-- transaction as the account/customer/branch write. The balance is read from accounts by primary key,
+-- so balance changes never write here. Databases created while the summary still had a balance column:
+-- run migrations/002_account_summary_balance.sql
+DROP VIEW IF EXISTS account_summary;
+CREATE TABLE account_summary (
+                                 account_id INT PRIMARY KEY,
+                                 account_number VARCHAR(20) NOT NULL,
+                                 account_type ENUM('SAVINGS', 'CHECKING', 'LOAN') NOT NULL,
+                                 customer_id INT NOT NULL,
+                                 first_name VARCHAR(50) NOT NULL,
+                                 last_name VARCHAR(50) NOT NULL,
+                                 branch_id INT NOT NULL,
+                                 branch_name VARCHAR(100) NOT NULL,
+                                 FOREIGN KEY (account_id) REFERENCES accounts(account_id) ON DELETE CASCADE,
+                                 INDEX idx_account_summary_customer (customer_id),
+                                 INDEX idx_account_summary_branch (branch_id)
+);
+
+-- Backfill from the source tables
+INSERT INTO account_summary (account_id, account_number, account_type, customer_id,
+                             first_name, last_name, branch_id, branch_name)
+SELECT a.account_id, a.account_number, a.account_type, c.customer_id,
+       c.first_name, c.last_name, b.branch_id, b.branch_name
 FROM accounts a
          JOIN customers c ON a.customer_id = c.customer_id
          JOIN branches b ON a.branch_id = b.branch_id;
 
--- Create a stored procedure to transfer money
+-- Create a stored procedure to transfer money. It runs in the caller's transaction and never commits
+-- itself, so the application's outbox_events rows and idempotency key commit together with the money.
+-- Every check runs before the first write. Called by hand, wrap it: START TRANSACTION; CALL ...; COMMIT;
 DELIMITER //
 CREATE PROCEDURE transfer_money(
     IN from_account_id INT,
     IN to_account_id INT,
     IN transfer_amount DECIMAL(15, 2),
-    IN description VARCHAR(255)
+    IN description VARCHAR(255),
+    OUT debit_transaction_id INT
 )
 BEGIN
     DECLARE from_balance DECIMAL(15, 2);
+    DECLARE locked_accounts INT;
+    DECLARE first_id BIGINT;
 
-    -- Start transaction
-    START TRANSACTION;
-
-    -- Check if from_account has sufficient balance
-    SELECT balance INTO from_balance
+    -- Lock both accounts in ascending ID order, like the Java engine, so opposite transfers can't deadlock
+    SELECT COUNT(*) INTO locked_accounts
     FROM accounts
-    WHERE account_id = from_account_id
+    WHERE account_id IN (from_account_id, to_account_id)
         FOR UPDATE;
 
-    IF from_balance >= transfer_amount THEN
-        -- Update from_account balance
-        UPDATE accounts
-        SET balance = balance - transfer_amount
-        WHERE account_id = from_account_id;
-
-        -- Update to_account balance
-        UPDATE accounts
-        SET balance = balance + transfer_amount
-        WHERE account_id = to_account_id;
+    SELECT balance INTO from_balance
+    FROM accounts
+    WHERE account_id = from_account_id;
 
-        -- Record withdrawal transaction
-        INSERT INTO transactions (account_id, transaction_type, amount, description, target_account_id)
-        VALUES (from_account_id, 'TRANSFER', transfer_amount, description, to_account_id);
+    -- Callers do not look the accounts up first; a missing one is reported from here
+    IF from_balance IS NULL THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'From account not found';
+    END IF;
 
-        -- Record deposit transaction
-        INSERT INTO transactions (account_id, transaction_type, amount, description, target_account_id)
-        VALUES (to_account_id, 'TRANSFER', transfer_amount, description, from_account_id);
+    IF locked_accounts < 2 THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'To account not found';
+    END IF;
 
-        COMMIT;
-    ELSE
-        ROLLBACK;
+    IF from_balance < transfer_amount THEN
         SIGNAL SQLSTATE '45000'
             SET MESSAGE_TEXT = 'Insufficient balance for transfer';
     END IF;
+
+    -- Update from_account balance
+    UPDATE accounts
+    SET balance = balance - transfer_amount, version = version + 1
+    WHERE account_id = from_account_id;
+
+    -- Update to_account balance
+    UPDATE accounts
+    SET balance = balance + transfer_amount, version = version + 1
+    WHERE account_id = to_account_id;
+
+    -- Reserve two transaction IDs from the shared allocator
+    SELECT next_val INTO first_id
+    FROM id_generators
+    WHERE sequence_name = 'transactions'
+        FOR UPDATE;
+
+    UPDATE id_generators
+    SET next_val = next_val + 2
+    WHERE sequence_name = 'transactions';
+
+    -- Record withdrawal transaction
+    INSERT INTO transactions (transaction_id, account_id, transaction_type, direction, amount, description, target_account_id)
+    VALUES (first_id, from_account_id, 'TRANSFER', 'DEBIT', transfer_amount, description, to_account_id);
+
+    -- Hand the debit-side row ID back to the caller
+    SET debit_transaction_id = first_id;
+
+    -- Record deposit transaction
+    INSERT INTO transactions (transaction_id, account_id, transaction_type, direction, amount, description, target_account_id)
+    VALUES (first_id + 1, to_account_id, 'TRANSFER', 'CREDIT', transfer_amount, description, from_account_id);
 END //
 DELIMITER ;
 
@@ -0,0 +1,25 @@
+-- Adds transactions.direction to a database created before the column existed and backfills it.
+-- Safe to re-run: the column is only added when missing and every update skips rows that already
+-- have a direction. Run against the live schema: mysql banking_db < migrations/001_transaction_direction.sql
+
+SET @has_direction = (SELECT COUNT(*) FROM information_schema.columns
+                      WHERE table_schema = DATABASE() AND table_name = 'transactions' AND column_name = 'direction');
+SET @add_direction = IF(@has_direction = 0,
+                        'ALTER TABLE transactions ADD COLUMN direction ENUM(''CREDIT'', ''DEBIT'') AFTER transaction_type',
+                        'DO 0');
+PREPARE add_direction FROM @add_direction;
+EXECUTE add_direction;
+DEALLOCATE PREPARE add_direction;
+
+-- Deposits credit and withdrawals and payments debit their own account
+UPDATE transactions SET direction = 'CREDIT' WHERE direction IS NULL AND transaction_type = 'DEPOSIT';
+UPDATE transactions SET direction = 'DEBIT' WHERE direction IS NULL AND transaction_type IN ('WITHDRAWAL', 'PAYMENT');
+
+-- transfer_money writes the debit leg at first_id and the credit leg at first_id + 1. Legs that can't be
+-- paired this way keep a NULL direction and show up as unclassified in reconciliation
+UPDATE transactions d
+    JOIN transactions c ON c.transaction_id = d.transaction_id + 1
+        AND c.account_id = d.target_account_id AND c.target_account_id = d.account_id
+        AND c.transaction_type = 'TRANSFER' AND c.amount = d.amount
+SET d.direction = 'DEBIT', c.direction = 'CREDIT'
+WHERE d.transaction_type = 'TRANSFER' AND d.direction IS NULL AND c.direction IS NULL;
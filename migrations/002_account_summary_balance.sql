@@ -0,0 +1,10 @@
+-- Drops account_summary.balance from a database created while the summary still copied it. Readers now
+-- join accounts for the balance, and nothing keeps the copy current any more. Safe to re-run: the column
+-- is only dropped when present. Run against the live schema: mysql banking_db < migrations/002_account_summary_balance.sql
+
+SET @has_balance = (SELECT COUNT(*) FROM information_schema.columns
+                    WHERE table_schema = DATABASE() AND table_name = 'account_summary' AND column_name = 'balance');
+SET @drop_balance = IF(@has_balance = 1, 'ALTER TABLE account_summary DROP COLUMN balance', 'DO 0');
+PREPARE drop_balance FROM @drop_balance;
+EXECUTE drop_balance;
+DEALLOCATE PREPARE drop_balance;
@@ -0,0 +1,47 @@
+package com.banking.benchmark;
+
+import com.banking.BankingApplication;
+import org.h2.tools.Server;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Boots the application without a web server for JMH state objects (each trial runs in its own fork).
+// By default the database is H2 behind a local TCP server so every statement pays a real round trip,
+// as it would against MySQL.
+// Benchmark a real MySQL instead with
+// -jvmArgsAppend "-Dspring.datasource.url=jdbc:mysql://... -Dspring.datasource.driver-class-name=..."
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start(String... overrides) {
+        List<String> args = new ArrayList<>();
+        args.add("--logging.level.root=WARN");
+        args.add("--spring.jpa.show-sql=false");
+
+        if (System.getProperty("spring.datasource.url") == null) {
+            Server server = startH2Server();
+            args.add("--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort()
+                    + "/mem:banking_bench;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        }
+        args.addAll(Arrays.asList(overrides));
+
+        return new SpringApplicationBuilder(BankingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    private static Server startH2Server() {
+        try {
+            return Server.createTcpServer("-tcpPort", "0", "-tcpDaemon", "-ifNotExists").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not start H2 TCP server", e);
+        }
+    }
+}
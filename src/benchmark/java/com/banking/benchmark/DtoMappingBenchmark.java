@@ -0,0 +1,115 @@
+package com.banking.benchmark;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Branch;
+import com.banking.entity.Customer;
+import com.banking.entity.Transaction;
+import com.banking.services.AccountService;
+import com.banking.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// The services' entity <-> DTO mappers, without Spring or a database. The mappers are private,
+// so they are called through method handles on plain service instances (they use no injected beans).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final MethodHandle ACCOUNT_TO_DTO =
+            mapper(AccountService.class, "convertToDTO", AccountDTO.class, Account.class);
+    private static final MethodHandle ACCOUNT_TO_ENTITY =
+            mapper(AccountService.class, "convertToEntity", Account.class, AccountDTO.class);
+    private static final MethodHandle TRANSACTION_TO_DTO =
+            mapper(TransactionService.class, "convertToDTO", TransactionDTO.class, Transaction.class);
+    private static final MethodHandle TRANSACTION_TO_ENTITY =
+            mapper(TransactionService.class, "convertToEntity", Transaction.class, TransactionDTO.class);
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private Account account;
+    private AccountDTO accountDTO;
+    private Transaction transaction;
+    private TransactionDTO transactionDTO;
+
+    @Setup
+    public void setUp() {
+        accountService = new AccountService();
+        transactionService = new TransactionService();
+
+        Customer customer = new Customer();
+        customer.setCustomerId(7);
+        Branch branch = new Branch();
+        branch.setBranchId(3);
+
+        account = new Account();
+        account.setAccountId(42);
+        account.setCustomer(customer);
+        account.setBranch(branch);
+        account.setAccountType(Account.AccountType.CHECKING);
+        account.setAccountNumber("ACC00000042");
+        account.setBalance(new BigDecimal("1250.75"));
+        accountDTO = new AccountDTO(42, 7, 3, Account.AccountType.CHECKING, "ACC00000042",
+                new BigDecimal("1250.75"), Account.AccountStatus.ACTIVE);
+
+        transaction = new Transaction();
+        transaction.setTransactionId(1001L);
+        transaction.setAccount(account);
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction.setAmount(new BigDecimal("19.99"));
+        transaction.setTransactionDate(LocalDateTime.now());
+        transaction.setDescription("Card refund");
+        transactionDTO = new TransactionDTO(null, 42, TransactionType.DEPOSIT, new BigDecimal("19.99"),
+                null, "Card refund", null);
+    }
+
+    @Benchmark
+    public Object accountToDTO() throws Throwable {
+        return (AccountDTO) ACCOUNT_TO_DTO.invokeExact(accountService, account);
+    }
+
+    @Benchmark
+    public Object accountToEntity() throws Throwable {
+        return (Account) ACCOUNT_TO_ENTITY.invokeExact(accountService, accountDTO);
+    }
+
+    @Benchmark
+    public Object transactionToDTO() throws Throwable {
+        return (TransactionDTO) TRANSACTION_TO_DTO.invokeExact(transactionService, transaction);
+    }
+
+    @Benchmark
+    public Object transactionToEntity() throws Throwable {
+        return (Transaction) TRANSACTION_TO_ENTITY.invokeExact(transactionService, transactionDTO);
+    }
+
+    private static MethodHandle mapper(Class<?> service, String name, Class<?> returnType, Class<?> argumentType) {
+        try {
+            return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                    .findVirtual(service, name, MethodType.methodType(returnType, argumentType));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No mapper " + service.getSimpleName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.benchmark;
+
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Benchmark-only copy of Transaction keyed by GenerationType.IDENTITY, the mapping @PooledId replaced.
+// Only compiled with -Pbenchmark, so it never reaches the application schema.
+@Entity
+@Table(name = "bench_identity_transactions")
+public class IdentityTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @ManyToOne
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "transaction_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_date")
+    private LocalDateTime transactionDate;
+
+    @Column(name = "description")
+    private String description;
+
+    // Constructors
+    public IdentityTransaction() {}
+
+    // Getters and Setters
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setAccount(Account account) {
+        this.account = account;
+    }
+
+    public void setTransactionType(TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public void setTransactionDate(LocalDateTime transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.benchmark;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.PageDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response body serialization with an ObjectMapper built the way Spring Boot builds the MVC one.
+// The page case is a full default-size list response.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectWriter writer;
+    private TransactionDTO transaction;
+    private AccountDTO account;
+    private PageDTO<TransactionDTO> transactionPage;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+        LocalDateTime now = LocalDateTime.now();
+        transaction = new TransactionDTO(1001L, 42, TransactionType.DEPOSIT, new BigDecimal("19.99"),
+                now, "Card refund", null);
+        account = new AccountDTO(42, 7, 3, Account.AccountType.CHECKING, "ACC00000042",
+                new BigDecimal("1250.75"), Account.AccountStatus.ACTIVE);
+
+        List<TransactionDTO> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(new TransactionDTO(1001L + i, 42, TransactionType.WITHDRAWAL, new BigDecimal("5.00"),
+                    now.minusMinutes(i), "Coffee", null));
+        }
+        transactionPage = new PageDTO<>(content, 0, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public byte[] transactionDTO() throws JsonProcessingException {
+        return writer.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] accountDTO() throws JsonProcessingException {
+        return writer.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] transactionPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(transactionPage);
+    }
+}
@@ -0,0 +1,102 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.banking.TestAccountFactory.request;
+
+// TransactionService with the in-memory ledger enabled (compare with TransactionServiceBenchmark).
+// 64 callers, each on its own account, so the shards can batch many operations per WAL force.
+// The flusher runs as configured and writes to the benchmark database in the background.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(LedgerEngineBenchmark.THREADS)
+public class LedgerEngineBenchmark {
+
+    static final int THREADS = 64;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private final List<Integer> accountIds = new ArrayList<>();
+    private final AtomicInteger nextAccount = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() {
+        String walDirectory;
+        try {
+            walDirectory = Files.createTempDirectory("ledger-bench").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        context = BenchmarkContext.start("--banking.ledger.enabled=true",
+                "--banking.ledger.wal-directory=" + walDirectory);
+        transactionService = context.getBean(TransactionService.class);
+        // Created up front: 64 threads creating accounts at once would starve the connection pool
+        TestAccountFactory accounts = context.getBean(TestAccountFactory.class);
+        for (int i = 0; i < THREADS * 2; i++) {
+            accountIds.add(accounts.create(new BigDecimal("1000000000.00")).getAccountId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class OwnAccounts {
+        Integer accountId;
+        Integer otherAccountId;
+
+        @Setup(Level.Trial)
+        public void create(LedgerEngineBenchmark benchmark) {
+            int index = benchmark.nextAccount.getAndIncrement() * 2;
+            accountId = benchmark.accountIds.get(index);
+            otherAccountId = benchmark.accountIds.get(index + 1);
+        }
+    }
+
+    @Benchmark
+    public TransactionDTO deposit(OwnAccounts own) {
+        return transactionService.deposit(request(own.accountId, null, TransactionType.DEPOSIT, "1"));
+    }
+
+    @Benchmark
+    public TransactionDTO withdraw(OwnAccounts own) {
+        return transactionService.withdraw(request(own.accountId, null, TransactionType.WITHDRAWAL, "1"));
+    }
+
+    @Benchmark
+    public TransactionDTO transfer(OwnAccounts own) {
+        return transactionService.transfer(request(own.accountId, own.otherAccountId, TransactionType.TRANSFER, "1"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.AccountDTO;
+import com.banking.dto.AccountSummaryDTO;
+import com.banking.dto.CursorPageDTO;
+import com.banking.dto.PageDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Branch;
+import com.banking.repository.BranchRepository;
+import com.banking.services.AccountService;
+import com.banking.services.AccountSummaryService;
+import com.banking.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The list endpoints' service calls at different table sizes. Setup seeds `rows` accounts (with their
+// account_summary rows) and `rows` transactions spread over HISTORY_ACCOUNTS accounts, so each of those
+// has rows / HISTORY_ACCOUNTS of history. Seeding writes into the configured database: point it at a
+// scratch schema when benchmarking MySQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ListQueryBenchmark {
+
+    private static final int BRANCHES = 10;
+    private static final int HISTORY_ACCOUNTS = 100;
+    private static final int SEED_BATCH = 1000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountSummaryService accountSummaryService;
+    private TransactionService transactionService;
+    private Integer branchId;
+    private Integer historyAccountId;
+    private int deepPage;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        accountService = context.getBean(AccountService.class);
+        accountSummaryService = context.getBean(AccountSummaryService.class);
+        transactionService = context.getBean(TransactionService.class);
+        seed();
+        deepPage = rows / PAGE_SIZE / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageDTO<AccountDTO> accountsFirstPage() {
+        return accountService.getAccounts(Account.AccountStatus.ACTIVE, null, null, null, null, 0, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageDTO<AccountDTO> accountsByBalance() {
+        return accountService.getAccounts(null, null, null, new BigDecimal("500.00"), null,
+                0, PAGE_SIZE, "balance,desc");
+    }
+
+    // OFFSET paging half way through the table
+    @Benchmark
+    public PageDTO<AccountDTO> accountsDeepPage() {
+        return accountService.getAccounts(null, null, null, null, null, deepPage, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageDTO<AccountSummaryDTO> summariesByBranch() {
+        return accountSummaryService.getAccountSummaries(null, branchId, null, null, 0, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageDTO<TransactionDTO> transactionsByType() {
+        return transactionService.getTransactions(null, TransactionType.WITHDRAWAL, 0, PAGE_SIZE,
+                "amount,desc");
+    }
+
+    @Benchmark
+    public CursorPageDTO<TransactionDTO> accountHistory() {
+        return transactionService.getTransactionsByAccountId(historyAccountId, null, PAGE_SIZE);
+    }
+
+    // Accounts, summaries and transactions go in as plain JDBC batches with IDs above anything already
+    // used or allocated; id_generators is moved past them so later inserts through Hibernate don't collide.
+    private void seed() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Account owner = context.getBean(TestAccountFactory.class).create(BigDecimal.ZERO);
+        Integer customerId = owner.getCustomer().getCustomerId();
+        BranchRepository branchRepository = context.getBean(BranchRepository.class);
+        List<Integer> branchIds = new ArrayList<>();
+        for (int i = 0; i < BRANCHES; i++) {
+            Branch branch = new Branch();
+            branch.setBranchName("Bench branch " + i);
+            branch.setBranchAddress(i + " Bench St");
+            branchIds.add(branchRepository.save(branch).getBranchId());
+        }
+        branchId = branchIds.get(0);
+
+        int firstAccountId = (int) firstFreeId(jdbc, "accounts", "account_id");
+        long firstTransactionId = firstFreeId(jdbc, "transactions", "transaction_id");
+        historyAccountId = firstAccountId;
+        Timestamp openedAt = Timestamp.valueOf(LocalDateTime.now().minusYears(1));
+        LocalDateTime newest = LocalDateTime.now();
+
+        for (int start = 0; start < rows; start += SEED_BATCH) {
+            int from = start;
+            int to = Math.min(rows, start + SEED_BATCH);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> accountRows = new ArrayList<>(to - from);
+                List<Object[]> transactionRows = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    int accountId = firstAccountId + i;
+                    accountRows.add(new Object[]{accountId, customerId, branchIds.get(i % BRANCHES),
+                            Account.AccountType.values()[i % 3].name(), "BENCH" + accountId,
+                            BigDecimal.valueOf(i % 100_000, 2), openedAt,
+                            (i % 10 == 0 ? Account.AccountStatus.INACTIVE : Account.AccountStatus.ACTIVE).name()});
+                    transactionRows.add(new Object[]{firstTransactionId + i,
+                            firstAccountId + i % HISTORY_ACCOUNTS,
+                            (i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL).name(),
+                            (i % 2 == 0 ? TransactionDirection.CREDIT : TransactionDirection.DEBIT).name(),
+                            BigDecimal.valueOf(i % 10_000, 2), Timestamp.valueOf(newest.minusSeconds(rows - i)),
+                            "Bench"});
+                }
+                jdbc.batchUpdate("INSERT INTO accounts (account_id, customer_id, branch_id, account_type, "
+                        + "account_number, balance, opened_at, status, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                        accountRows);
+                jdbc.batchUpdate("INSERT INTO transactions (transaction_id, account_id, transaction_type, "
+                        + "direction, amount, transaction_date, description) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        transactionRows);
+            });
+        }
+
+        jdbc.update("INSERT INTO account_summary (account_id, account_number, account_type, "
+                + "customer_id, first_name, last_name, branch_id, branch_name) "
+                + "SELECT a.account_id, a.account_number, a.account_type, c.customer_id, "
+                + "c.first_name, c.last_name, b.branch_id, b.branch_name "
+                + "FROM accounts a JOIN customers c ON c.customer_id = a.customer_id "
+                + "JOIN branches b ON b.branch_id = a.branch_id WHERE a.account_id >= ?", firstAccountId);
+        reserveIds(jdbc, "accounts", firstAccountId + rows);
+        reserveIds(jdbc, "transactions", firstTransactionId + rows);
+    }
+
+    // Past both the table's rows and any block Hibernate has already taken from id_generators
+    private static long firstFreeId(JdbcTemplate jdbc, String table, String idColumn) {
+        long afterRows = jdbc.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table,
+                Long.class);
+        List<Long> nextVal = jdbc.queryForList("SELECT next_val FROM id_generators WHERE sequence_name = ?",
+                Long.class, table);
+        return nextVal.isEmpty() ? afterRows : Math.max(afterRows, nextVal.get(0));
+    }
+
+    private static void reserveIds(JdbcTemplate jdbc, String sequence, long nextVal) {
+        if (jdbc.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ?", nextVal, sequence) == 0) {
+            jdbc.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", sequence, nextVal);
+        }
+    }
+}
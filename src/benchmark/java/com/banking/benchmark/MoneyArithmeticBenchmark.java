@@ -0,0 +1,105 @@
+package com.banking.benchmark;
+
+import com.banking.services.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The balance replay GroupCommitPipeline and TransactionBatchService run per account: walk a batch of
+// deposits and withdrawals in order, refuse any that would overdraw, and accumulate the net delta.
+//  - bigDecimal: the replay as it was, on BigDecimal (add/negate/signum per item).
+//  - cents: raw long cents through Money.addCents, amounts converted once up front as
+//    GroupCommitPipeline does when a request is queued.
+//  - centsIncludingConversion: as cents, but paying Money.of for every item inside the loop, as
+//    TransactionBatchService does.
+// Run with -prof gc to see gc.alloc.rate.norm (bytes per batch of 64).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final int BATCH = 64;
+
+    private BigDecimal openingBalance;
+    private BigDecimal[] amounts;
+    private boolean[] deposits;
+    private long openingCents;
+    private long[] signedCents;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        openingBalance = new BigDecimal("250.00");
+        openingCents = Money.of(openingBalance).cents();
+        amounts = new BigDecimal[BATCH];
+        deposits = new boolean[BATCH];
+        signedCents = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            amounts[i] = BigDecimal.valueOf(1 + random.nextInt(20_000), 2);
+            deposits[i] = random.nextBoolean();
+            long amount = Money.of(amounts[i]).cents();
+            signedCents[i] = deposits[i] ? amount : -amount;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal balance = openingBalance;
+        BigDecimal delta = BigDecimal.ZERO;
+        for (int i = 0; i < BATCH; i++) {
+            BigDecimal signed = deposits[i] ? amounts[i] : amounts[i].negate();
+            if (balance.add(signed).signum() < 0) {
+                continue;
+            }
+            balance = balance.add(signed);
+            delta = delta.add(signed);
+        }
+        return delta;
+    }
+
+    @Benchmark
+    public long cents() {
+        long balance = openingCents;
+        long delta = 0;
+        for (int i = 0; i < BATCH; i++) {
+            long next = Money.addCents(balance, signedCents[i]);
+            if (next < 0) {
+                continue;
+            }
+            balance = next;
+            delta += signedCents[i];
+        }
+        return delta;
+    }
+
+    @Benchmark
+    public long centsIncludingConversion() {
+        long balance = Money.of(openingBalance).cents();
+        long delta = 0;
+        for (int i = 0; i < BATCH; i++) {
+            long amount = Money.of(amounts[i]).cents();
+            long signed = deposits[i] ? amount : -amount;
+            long next = Money.addCents(balance, signed);
+            if (next < 0) {
+                continue;
+            }
+            balance = next;
+            delta += signed;
+        }
+        return delta;
+    }
+}
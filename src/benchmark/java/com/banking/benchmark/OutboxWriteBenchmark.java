@@ -0,0 +1,87 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.banking.TestAccountFactory.request;
+
+// What the transactional outbox adds to the write path: deposits and transfers with outbox=false
+// (no OutboxWriter or OutboxRelay) vs. outbox=true, where each transactions row also inserts an
+// outbox_events row before commit and the relay drains them every 50 ms on its own thread, taking its
+// row locks alongside the writers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OutboxWriteBenchmark {
+
+    @Param({"false", "true"})
+    public boolean outbox;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TestAccountFactory accounts;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("--banking.outbox.enabled=" + outbox,
+                "--banking.outbox.poll-interval-ms=50");
+        transactionService = context.getBean(TransactionService.class);
+        accounts = context.getBean(TestAccountFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class OwnAccounts {
+        Integer accountId;
+        Integer otherAccountId;
+
+        @Setup(Level.Trial)
+        public void create(OutboxWriteBenchmark benchmark) {
+            accountId = benchmark.accounts.create(new BigDecimal("1000000000.00")).getAccountId();
+            otherAccountId = benchmark.accounts.create(BigDecimal.ZERO).getAccountId();
+        }
+    }
+
+    @Benchmark
+    public TransactionDTO deposit(OwnAccounts own) {
+        return transactionService.deposit(request(own.accountId, null, TransactionType.DEPOSIT, "1"));
+    }
+
+    @Benchmark
+    public TransactionDTO transfer(OwnAccounts own) {
+        return transactionService.transfer(request(own.accountId, own.otherAccountId, TransactionType.TRANSFER, "1"));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDTO depositSpreadAccounts(OwnAccounts own) {
+        return transactionService.deposit(request(own.accountId, null, TransactionType.DEPOSIT, "1"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.ReconciliationReportDTO;
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.services.ReconciliationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A full reconciliation pass at different table sizes and pool widths. Setup seeds `rows` transactions
+// over rows / ROWS_PER_ACCOUNT accounts whose balances match their rows, except every
+// MISMATCH_EVERY-th account, which is a cent off so the mismatch path runs too. Seeding writes into the
+// configured database: point it at a scratch schema when benchmarking MySQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReconciliationBenchmark {
+
+    private static final int ROWS_PER_ACCOUNT = 10;
+    private static final int MISMATCH_EVERY = 100;
+    private static final int SEED_BATCH = 1000;
+    private static final int RANGE_SIZE = 10_000;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private ReconciliationService reconciliationService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("--banking.reconciliation.parallelism=" + parallelism,
+                "--banking.reconciliation.range-size=" + RANGE_SIZE);
+        reconciliationService = context.getBean(ReconciliationService.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReconciliationReportDTO reconcile() {
+        return reconciliationService.reconcile();
+    }
+
+    // Rows go in as plain JDBC batches on a fresh database, so IDs start right after the owner account
+    private void seed() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Account owner = context.getBean(TestAccountFactory.class).create(BigDecimal.ZERO);
+        Integer customerId = owner.getCustomer().getCustomerId();
+        Integer branchId = owner.getBranch().getBranchId();
+        int firstAccountId = owner.getAccountId() + 1;
+        long firstTransactionId = jdbc.queryForObject(
+                "SELECT COALESCE(MAX(transaction_id), 0) + 1 FROM transactions", Long.class);
+        Timestamp date = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        int accountCount = rows / ROWS_PER_ACCOUNT;
+
+        for (int start = 0; start < accountCount; start += SEED_BATCH) {
+            int from = start;
+            int to = Math.min(accountCount, start + SEED_BATCH);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> accountRows = new ArrayList<>(to - from);
+                List<Object[]> transactionRows = new ArrayList<>((to - from) * ROWS_PER_ACCOUNT);
+                for (int a = from; a < to; a++) {
+                    int accountId = firstAccountId + a;
+                    long netCents = 0;
+                    for (int j = 0; j < ROWS_PER_ACCOUNT; j++) {
+                        boolean deposit = j % 2 == 0;
+                        long cents = deposit ? 1_000 + j : 500 + j;
+                        netCents += deposit ? cents : -cents;
+                        transactionRows.add(new Object[]{firstTransactionId + (long) a * ROWS_PER_ACCOUNT + j,
+                                accountId, (deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL).name(),
+                                (deposit ? TransactionDirection.CREDIT : TransactionDirection.DEBIT).name(),
+                                BigDecimal.valueOf(cents, 2), date, "Bench"});
+                    }
+                    if (a % MISMATCH_EVERY == 0) {
+                        netCents++;
+                    }
+                    accountRows.add(new Object[]{accountId, customerId, branchId, "CHECKING", "RECON" + accountId,
+                            BigDecimal.valueOf(netCents, 2), date, "ACTIVE"});
+                }
+                jdbc.batchUpdate("INSERT INTO accounts (account_id, customer_id, branch_id, account_type, "
+                        + "account_number, balance, opened_at, status, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                        accountRows);
+                jdbc.batchUpdate("INSERT INTO transactions (transaction_id, account_id, transaction_type, "
+                        + "direction, amount, transaction_date, description) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        transactionRows);
+            });
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Inserts/sec for transaction rows. Scores are per row (ops/s == rows/s).
+//  - pooledBatched: Hibernate persist with @PooledId keys and JDBC batching, at the given block size.
+//    blockSize=1 pays one id_generators round trip per row, like a per-row key fetch.
+//  - identityPerRow: the same rows through an IDENTITY-keyed copy of the entity. Hibernate must run
+//    each INSERT at persist time to read the generated key, so nothing is batched.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionInsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"1", "50"})
+    public int blockSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("--spring.jpa.properties.banking.id.block-size=" + blockSize);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        account = context.getBean(TestAccountFactory.class).create(BigDecimal.ZERO);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pooledBatched() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account reference = entityManager.getReference(Account.class, account.getAccountId());
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ROWS; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setAccount(reference);
+                transaction.setTransactionType(TransactionType.DEPOSIT);
+                transaction.setAmount(BigDecimal.ONE);
+                transaction.setTransactionDate(now);
+                entityManager.persist(transaction);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identityPerRow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account reference = entityManager.getReference(Account.class, account.getAccountId());
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ROWS; i++) {
+                IdentityTransaction transaction = new IdentityTransaction();
+                transaction.setAccount(reference);
+                transaction.setTransactionType(TransactionType.DEPOSIT);
+                transaction.setAmount(BigDecimal.ONE);
+                transaction.setTransactionDate(now);
+                entityManager.persist(transaction);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
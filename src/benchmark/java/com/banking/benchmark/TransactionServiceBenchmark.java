@@ -0,0 +1,95 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.banking.TestAccountFactory.request;
+
+// Single deposits and withdrawals through TransactionService: lock, guarded balance UPDATE,
+// summary refresh and ledger insert, one DB transaction each.
+//  - *SameAccount with 8 threads: every call serializes on one account's lock and row.
+//  - depositSpreadAccounts with 8 threads: each thread has its own account.
+// groupCommit=true routes deposits and withdrawals through GroupCommitPipeline (default settings).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TestAccountFactory accounts;
+    private Integer sharedAccountId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("--banking.group-commit.enabled=" + groupCommit);
+        transactionService = context.getBean(TransactionService.class);
+        accounts = context.getBean(TestAccountFactory.class);
+        // Enough for every withdrawal a trial can make
+        sharedAccountId = accounts.create(new BigDecimal("1000000000.00")).getAccountId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class OwnAccount {
+        Integer accountId;
+
+        @Setup(Level.Trial)
+        public void create(TransactionServiceBenchmark benchmark) {
+            accountId = benchmark.accounts.create(BigDecimal.ZERO).getAccountId();
+        }
+    }
+
+    @Benchmark
+    public TransactionDTO deposit() {
+        return transactionService.deposit(request(sharedAccountId, null, TransactionType.DEPOSIT, "1"));
+    }
+
+    @Benchmark
+    public TransactionDTO withdraw() {
+        return transactionService.withdraw(request(sharedAccountId, null, TransactionType.WITHDRAWAL, "1"));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDTO depositSameAccount() {
+        return transactionService.deposit(request(sharedAccountId, null, TransactionType.DEPOSIT, "1"));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransactionDTO depositSpreadAccounts(OwnAccount own) {
+        return transactionService.deposit(request(own.accountId, null, TransactionType.DEPOSIT, "1"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.banking.benchmark;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.banking.TestAccountFactory.request;
+
+// Transfers through TransactionService and the selected TransferEngine. engine=procedure needs MySQL
+// with banking_db.sql loaded, e.g.
+// -p engine=procedure -jvmArgsAppend "-Dspring.datasource.url=jdbc:mysql://localhost:3306/banking_db ..."
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferBenchmark {
+
+    @Param({"java"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private Integer firstAccountId;
+    private Integer secondAccountId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        if (engine.equals("procedure") && System.getProperty("spring.datasource.url") == null) {
+            throw new IllegalStateException("engine=procedure calls transfer_money; run it against MySQL");
+        }
+        context = BenchmarkContext.start("--banking.transfer.engine=" + engine);
+        transactionService = context.getBean(TransactionService.class);
+        TestAccountFactory accounts = context.getBean(TestAccountFactory.class);
+        firstAccountId = accounts.create(new BigDecimal("1000000000.00")).getAccountId();
+        secondAccountId = accounts.create(new BigDecimal("1000000000.00")).getAccountId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public TransactionDTO transfer() {
+        return transactionService.transfer(request(firstAccountId, secondAccountId, TransactionType.TRANSFER, "1"));
+    }
+
+    // Both directions at once: every call takes the same pair of locks, in opposite argument order
+    @Benchmark
+    @Threads(8)
+    public TransactionDTO transferBothWays() {
+        boolean forward = Thread.currentThread().threadId() % 2 == 0;
+        return transactionService.transfer(forward
+                ? request(firstAccountId, secondAccountId, TransactionType.TRANSFER, "1")
+                : request(secondAccountId, firstAccountId, TransactionType.TRANSFER, "1"));
+    }
+}
@@ -1,16 +1,22 @@
 package com.banking.controllers;
 
+import com.banking.dto.AccountBalanceDTO;
 import com.banking.dto.AccountDTO;
+import com.banking.dto.PageDTO;
+import com.banking.entity.Account;
 import com.banking.exception.ResourceNotFoundException;
 import com.banking.services.AccountService;
+import com.banking.services.BalanceSnapshotService;
 import jakarta.validation.groups.Default;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -23,9 +29,21 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    // Accounts one page at a time; every filter is optional
     @GetMapping
-    public List<AccountDTO> getAllAccounts() {
-        return accountService.getAllAccounts();
+    public PageDTO<AccountDTO> getAccounts(
+            @RequestParam(value = "status", required = false) Account.AccountStatus status,
+            @RequestParam(value = "account_type", required = false) Account.AccountType accountType,
+            @RequestParam(value = "branch_id", required = false) Integer branchId,
+            @RequestParam(value = "min_balance", required = false) BigDecimal minBalance,
+            @RequestParam(value = "max_balance", required = false) BigDecimal maxBalance,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return accountService.getAccounts(status, accountType, branchId, minBalance, maxBalance, page, size, sort);
     }
 
     @GetMapping("/{account_id}")
@@ -33,6 +51,14 @@ public class AccountController {
         return ResponseEntity.ok(accountService.getAccountById(accountId));
     }
 
+    // Balance as of a past time, from the nearest earlier daily snapshot plus the transactions since
+    @GetMapping("/{account_id}/balance")
+    public AccountBalanceDTO getBalanceAt(
+            @PathVariable("account_id") Integer accountId,
+            @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return balanceSnapshotService.getBalanceAt(accountId, at);
+    }
+
     @GetMapping("/customer/{customer_id}")
     public List<AccountDTO> getAccountsByCustomerId(@PathVariable("customer_id") Integer customerId) {
         return accountService.getAccountsByCustomerId(customerId);
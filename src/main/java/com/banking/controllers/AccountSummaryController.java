@@ -1,11 +1,14 @@
 package com.banking.controllers;
 
 import com.banking.dto.AccountSummaryDTO;
+import com.banking.dto.PageDTO;
+import com.banking.entity.Account;
 import com.banking.services.AccountSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -15,10 +18,18 @@ public class AccountSummaryController {
     @Autowired
     private AccountSummaryService accountSummaryService;
 
-    // Get all account summaries
+    // Get account summaries one page at a time; every filter is optional
     @GetMapping
-    public List<AccountSummaryDTO> getAllAccountSummaries() {
-        return accountSummaryService.getAllAccountSummaries();
+    public PageDTO<AccountSummaryDTO> getAccountSummaries(
+            @RequestParam(value = "account_type", required = false) Account.AccountType accountType,
+            @RequestParam(value = "branch_id", required = false) Integer branchId,
+            @RequestParam(value = "min_balance", required = false) BigDecimal minBalance,
+            @RequestParam(value = "max_balance", required = false) BigDecimal maxBalance,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return accountSummaryService.getAccountSummaries(accountType, branchId, minBalance, maxBalance,
+                page, size, sort);
     }
 
     // Get account summary by account ID
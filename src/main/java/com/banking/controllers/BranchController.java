@@ -1,93 +1,70 @@
 package com.banking.controllers;
 
 import com.banking.dto.BranchDTO;
-import com.banking.entity.Branch;
-import com.banking.repository.BranchRepository;
-import com.banking.exception.ResourceNotFoundException;
+import com.banking.dto.BranchDailyStatsDTO;
+import com.banking.services.BranchService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/branches")
 public class BranchController {
 
     @Autowired
-    private BranchRepository branchRepository;
+    private BranchService branchService;
 
     // GET: Retrieve all branches
     @GetMapping
     public List<BranchDTO> getAllBranches() {
-        return branchRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return branchService.getAllBranches();
     }
 
     // GET: Retrieve a specific branch by ID
     @GetMapping("/{branch_id}")
     public ResponseEntity<BranchDTO> getBranchById(@PathVariable("branch_id") Integer branchId) {
-        Branch branch = branchRepository.findById(branchId)
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + branchId));
-        return ResponseEntity.ok(convertToDTO(branch));
+        return ResponseEntity.ok(branchService.getBranchById(branchId));
+    }
+
+    // GET: Transaction counts and amounts per type for one day
+    @GetMapping("/{branch_id}/stats")
+    public List<BranchDailyStatsDTO> getDailyStats(
+            @PathVariable("branch_id") Integer branchId,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return branchService.getStats(branchId, date, date);
+    }
+
+    // GET: The same rollups for every day in a date range, oldest first
+    @GetMapping("/{branch_id}/stats/range")
+    public List<BranchDailyStatsDTO> getStatsRange(
+            @PathVariable("branch_id") Integer branchId,
+            @RequestParam("start_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("end_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return branchService.getStats(branchId, startDate, endDate);
     }
 
     // POST: Create a new branch
     @PostMapping
     public ResponseEntity<BranchDTO> createBranch(@Valid @RequestBody BranchDTO branchDTO) {
-        Branch branch = convertToEntity(branchDTO);
-        Branch savedBranch = branchRepository.save(branch);
-        return ResponseEntity.ok(convertToDTO(savedBranch));
+        return ResponseEntity.ok(branchService.createBranch(branchDTO));
     }
 
     // PUT: Update an existing branch
     @PutMapping("/{branch_id}")
     public ResponseEntity<BranchDTO> updateBranch(@PathVariable("branch_id") Integer branchId,
                                                   @Valid @RequestBody BranchDTO branchDTO) {
-        Branch branch = branchRepository.findById(branchId)
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + branchId));
-
-        branch.setBranchName(branchDTO.getBranchName());
-        branch.setBranchAddress(branchDTO.getBranchAddress());
-        branch.setBranchPhone(branchDTO.getBranchPhone());
-
-        Branch updatedBranch = branchRepository.save(branch);
-        return ResponseEntity.ok(convertToDTO(updatedBranch));
+        return ResponseEntity.ok(branchService.updateBranch(branchId, branchDTO));
     }
 
     // DELETE: Delete a branch
     @DeleteMapping("/{branch_id}")
     public ResponseEntity<String> deleteBranch(@PathVariable("branch_id") Integer branchId) {
-        Branch branch = branchRepository.findById(branchId)
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + branchId));
-
-        try {
-            branchRepository.delete(branch);
-            return ResponseEntity.ok("Branch deleted successfully");
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot delete branch due to existing accounts");
-        }
-    }
-
-    // Helper methods to convert between Entity and DTO
-    private BranchDTO convertToDTO(Branch branch) {
-        return new BranchDTO(
-                branch.getBranchId(),
-                branch.getBranchName(),
-                branch.getBranchAddress(),
-                branch.getBranchPhone()
-        );
-    }
-
-    private Branch convertToEntity(BranchDTO branchDTO) {
-        Branch branch = new Branch();
-        branch.setBranchId(branchDTO.getBranchId());
-        branch.setBranchName(branchDTO.getBranchName());
-        branch.setBranchAddress(branchDTO.getBranchAddress());
-        branch.setBranchPhone(branchDTO.getBranchPhone());
-        return branch;
+        branchService.deleteBranch(branchId);
+        return ResponseEntity.ok("Branch deleted successfully");
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.banking.controllers;
 
 import com.banking.dto.CustomerDTO;
+import com.banking.dto.PageDTO;
 import com.banking.exception.ResourceNotFoundException;
 import com.banking.services.CustomerService;
 import jakarta.validation.groups.Default;
@@ -13,7 +14,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,10 +23,14 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
-    // Get all customers
+    // Get customers one page at a time, optionally filtered by last name
     @GetMapping
-    public List<CustomerDTO> getAllCustomers() {
-        return customerService.getAllCustomers();
+    public PageDTO<CustomerDTO> getCustomers(
+            @RequestParam(value = "last_name", required = false) String lastName,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return customerService.getCustomers(lastName, page, size, sort);
     }
 
     // Get customer by ID
@@ -0,0 +1,27 @@
+package com.banking.controllers;
+
+import com.banking.dto.ReconciliationReportDTO;
+import com.banking.services.ReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reconciliation")
+public class ReconciliationController {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    // Run a reconciliation now and return its report
+    @PostMapping("/run")
+    public ResponseEntity<ReconciliationReportDTO> run() {
+        return ResponseEntity.ok(reconciliationService.reconcile());
+    }
+
+    // Report of the most recent run, nightly or manual
+    @GetMapping("/latest")
+    public ResponseEntity<ReconciliationReportDTO> getLatest() {
+        return ResponseEntity.ok(reconciliationService.getLatestReport());
+    }
+}
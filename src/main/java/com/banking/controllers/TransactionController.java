@@ -1,29 +1,54 @@
 package com.banking.controllers;
 
+import com.banking.dto.BatchResultDTO;
+import com.banking.dto.CursorPageDTO;
+import com.banking.dto.ExportFormat;
+import com.banking.dto.PageDTO;
 import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.services.IdempotencyClaim;
+import com.banking.services.IdempotencyStore;
+import com.banking.services.TransactionBatchService;
 import com.banking.services.TransactionService;
 import jakarta.validation.groups.Default;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     @Autowired
     private TransactionService transactionService;
 
-    // Get all transactions
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    // Get transactions one page at a time, optionally filtered by account and type
     @GetMapping
-    public List<TransactionDTO> getAllTransactions() {
-        return transactionService.getAllTransactions();
+    public PageDTO<TransactionDTO> getTransactions(
+            @RequestParam(value = "account_id", required = false) Integer accountId,
+            @RequestParam(value = "transaction_type", required = false) TransactionType transactionType,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return transactionService.getTransactions(accountId, transactionType, page, size, sort);
     }
 
     // Get transaction by ID
@@ -32,38 +57,87 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.getTransactionById(transactionId));
     }
 
-    // Get transactions by account ID
+    // Get transactions by account ID, one keyset page at a time
     @GetMapping("/account/{account_id}")
-    public List<TransactionDTO> getTransactionsByAccountId(@PathVariable("account_id") Integer accountId) {
-        return transactionService.getTransactionsByAccountId(accountId);
+    public CursorPageDTO<TransactionDTO> getTransactionsByAccountId(
+            @PathVariable("account_id") Integer accountId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return transactionService.getTransactionsByAccountId(accountId, cursor, limit);
     }
 
-    // Get transactions by date range
+    // Get transactions by date range, one keyset page at a time
     @GetMapping("/date")
-    public List<TransactionDTO> getTransactionsByDateRange(
+    public CursorPageDTO<TransactionDTO> getTransactionsByDateRange(
+            @RequestParam("start_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam("end_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return transactionService.getTransactionsByDateRange(startDate, endDate, cursor, limit);
+    }
+
+    // Export a date range as NDJSON or CSV, streamed straight to the response
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
             @RequestParam("start_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam("end_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return transactionService.getTransactionsByDateRange(startDate, endDate);
+            @RequestParam("end_date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        // Validate up front: once streaming starts the status code is already committed
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out ->
+                transactionService.exportTransactionsByDateRange(startDate, endDate, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     // Record a deposit
     @PostMapping("/deposit")
     @Validated({TransactionDTO.CreateValidation.class, Default.class})
-    public ResponseEntity<TransactionDTO> deposit(@Valid @RequestBody TransactionDTO transactionDTO) {
-        return ResponseEntity.ok(transactionService.deposit(transactionDTO));
+    public ResponseEntity<TransactionDTO> deposit(
+            @Valid @RequestBody TransactionDTO transactionDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotent(idempotencyKey, "deposit", transactionDTO,
+                claim -> transactionService.deposit(transactionDTO, claim)));
     }
 
     // Record a withdrawal
     @PostMapping("/withdrawal")
     @Validated({TransactionDTO.CreateValidation.class, Default.class})
-    public ResponseEntity<TransactionDTO> withdraw(@Valid @RequestBody TransactionDTO transactionDTO) {
-        return ResponseEntity.ok(transactionService.withdraw(transactionDTO));
+    public ResponseEntity<TransactionDTO> withdraw(
+            @Valid @RequestBody TransactionDTO transactionDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotent(idempotencyKey, "withdrawal", transactionDTO,
+                claim -> transactionService.withdraw(transactionDTO, claim)));
+    }
+
+    // Ingest a feed of deposits and withdrawals; every item gets its own result
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> ingestBatch(@RequestBody List<TransactionDTO> transactions) {
+        return ResponseEntity.ok(transactionBatchService.ingest(transactions));
     }
 
     // Perform a transfer
     @PostMapping("/transfer")
     @Validated({TransactionDTO.CreateValidation.class, Default.class})
-    public ResponseEntity<TransactionDTO> transfer(@Valid @RequestBody TransactionDTO transactionDTO) {
-        return ResponseEntity.ok(transactionService.transfer(transactionDTO));
+    public ResponseEntity<TransactionDTO> transfer(
+            @Valid @RequestBody TransactionDTO transactionDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotent(idempotencyKey, "transfer", transactionDTO,
+                claim -> transactionService.transfer(transactionDTO, claim)));
+    }
+
+    // Money-moving calls sent with an Idempotency-Key run at most once per key; retries get the first response
+    private TransactionDTO idempotent(String idempotencyKey, String operation, TransactionDTO transactionDTO,
+                                      Function<IdempotencyClaim, TransactionDTO> action) {
+        if (idempotencyKey == null) {
+            return action.apply(null);
+        }
+        return idempotencyStore.execute(idempotencyKey, operation, transactionDTO, action);
     }
-}
\ No newline at end of file
+}
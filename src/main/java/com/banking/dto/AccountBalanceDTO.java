@@ -0,0 +1,29 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class AccountBalanceDTO {
+    private Integer accountId;
+    private LocalDateTime at;
+    private BigDecimal balance;
+
+    // Constructors
+    public AccountBalanceDTO() {}
+
+    public AccountBalanceDTO(Integer accountId, LocalDateTime at, BigDecimal balance) {
+        this.accountId = accountId;
+        this.at = at;
+        this.balance = balance;
+    }
+
+    // Getters and Setters
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public LocalDateTime getAt() { return at; }
+    public void setAt(LocalDateTime at) { this.at = at; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
@@ -0,0 +1,40 @@
+package com.banking.dto;
+
+public class BatchItemResultDTO {
+    private int index;
+    private Status status;
+    private Long transactionId;
+    private String message;
+
+    public enum Status {
+        ACCEPTED, REJECTED
+    }
+
+    // Constructors
+    public BatchItemResultDTO() {}
+
+    public BatchItemResultDTO(int index, Status status, Long transactionId, String message) {
+        this.index = index;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.message = message;
+    }
+
+    public static BatchItemResultDTO accepted(int index, Long transactionId) {
+        return new BatchItemResultDTO(index, Status.ACCEPTED, transactionId, null);
+    }
+
+    public static BatchItemResultDTO rejected(int index, String message) {
+        return new BatchItemResultDTO(index, Status.REJECTED, null, message);
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
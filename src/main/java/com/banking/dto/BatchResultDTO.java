@@ -0,0 +1,26 @@
+package com.banking.dto;
+
+import java.util.List;
+
+public class BatchResultDTO {
+    private int acceptedCount;
+    private int rejectedCount;
+    private List<BatchItemResultDTO> results;
+
+    // Constructors
+    public BatchResultDTO() {}
+
+    public BatchResultDTO(int acceptedCount, int rejectedCount, List<BatchItemResultDTO> results) {
+        this.acceptedCount = acceptedCount;
+        this.rejectedCount = rejectedCount;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public int getAcceptedCount() { return acceptedCount; }
+    public void setAcceptedCount(int acceptedCount) { this.acceptedCount = acceptedCount; }
+    public int getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(int rejectedCount) { this.rejectedCount = rejectedCount; }
+    public List<BatchItemResultDTO> getResults() { return results; }
+    public void setResults(List<BatchItemResultDTO> results) { this.results = results; }
+}
@@ -0,0 +1,50 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class BranchDailyStatsDTO {
+    private Integer branchId;
+    private LocalDate date;
+    private TransactionType transactionType;
+    private Long count;
+    private BigDecimal totalAmount;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    // Constructors
+    public BranchDailyStatsDTO() {}
+
+    public BranchDailyStatsDTO(Integer branchId, LocalDate date, TransactionType transactionType, Long count,
+                               BigDecimal totalAmount, BigDecimal minAmount, BigDecimal maxAmount) {
+        this.branchId = branchId;
+        this.date = date;
+        this.transactionType = transactionType;
+        this.count = count;
+        this.totalAmount = totalAmount;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    // Getters and Setters
+    public Integer getBranchId() { return branchId; }
+    public void setBranchId(Integer branchId) { this.branchId = branchId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public TransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(TransactionType transactionType) { this.transactionType = transactionType; }
+
+    public Long getCount() { return count; }
+    public void setCount(Long count) { this.count = count; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+}
@@ -0,0 +1,26 @@
+package com.banking.dto;
+
+import java.util.List;
+
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public CursorPageDTO() {}
+
+    public CursorPageDTO(List<T> content, String nextCursor, boolean hasMore) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
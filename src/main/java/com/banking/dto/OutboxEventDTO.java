@@ -0,0 +1,56 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OutboxEventDTO {
+    private Long eventId;
+    private Long transactionId;
+    private Integer accountId;
+    private TransactionType transactionType;
+    private TransactionDirection direction;
+    private BigDecimal amount;
+    private LocalDateTime transactionDate;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OutboxEventDTO() {}
+
+    public OutboxEventDTO(Long eventId, Long transactionId, Integer accountId, TransactionType transactionType,
+                          TransactionDirection direction, BigDecimal amount, LocalDateTime transactionDate,
+                          LocalDateTime createdAt) {
+        this.eventId = eventId;
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.transactionType = transactionType;
+        this.direction = direction;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public TransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(TransactionType transactionType) { this.transactionType = transactionType; }
+
+    public TransactionDirection getDirection() { return direction; }
+    public void setDirection(TransactionDirection direction) { this.direction = direction; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+    public void setTransactionDate(LocalDateTime transactionDate) { this.transactionDate = transactionDate; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
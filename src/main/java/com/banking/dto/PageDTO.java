@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import java.util.List;
+
+public class PageDTO<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+    // Constructors
+    public PageDTO() {}
+
+    public PageDTO(List<T> content, int page, int size, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
@@ -0,0 +1,34 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+
+public class ReconciliationMismatchDTO {
+    private Integer accountId;
+    private BigDecimal balance;
+    private BigDecimal transactionNet;
+    private BigDecimal difference;
+
+    // Constructors
+    public ReconciliationMismatchDTO() {}
+
+    public ReconciliationMismatchDTO(Integer accountId, BigDecimal balance, BigDecimal transactionNet,
+                                     BigDecimal difference) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.transactionNet = transactionNet;
+        this.difference = difference;
+    }
+
+    // Getters and Setters
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    public BigDecimal getTransactionNet() { return transactionNet; }
+    public void setTransactionNet(BigDecimal transactionNet) { this.transactionNet = transactionNet; }
+
+    public BigDecimal getDifference() { return difference; }
+    public void setDifference(BigDecimal difference) { this.difference = difference; }
+}
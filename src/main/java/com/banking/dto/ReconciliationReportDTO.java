@@ -0,0 +1,53 @@
+package com.banking.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReconciliationReportDTO {
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long accountsChecked;
+    private long transactionsScanned;
+    private long mismatchCount;
+    private long unclassifiedTransferRows;
+    private List<ReconciliationMismatchDTO> mismatches;
+
+    // Constructors
+    public ReconciliationReportDTO() {}
+
+    public ReconciliationReportDTO(LocalDateTime startedAt, long durationMs, long accountsChecked,
+                                   long transactionsScanned, long mismatchCount, long unclassifiedTransferRows,
+                                   List<ReconciliationMismatchDTO> mismatches) {
+        this.startedAt = startedAt;
+        this.durationMs = durationMs;
+        this.accountsChecked = accountsChecked;
+        this.transactionsScanned = transactionsScanned;
+        this.mismatchCount = mismatchCount;
+        this.unclassifiedTransferRows = unclassifiedTransferRows;
+        this.mismatches = mismatches;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public long getAccountsChecked() { return accountsChecked; }
+    public void setAccountsChecked(long accountsChecked) { this.accountsChecked = accountsChecked; }
+
+    public long getTransactionsScanned() { return transactionsScanned; }
+    public void setTransactionsScanned(long transactionsScanned) { this.transactionsScanned = transactionsScanned; }
+
+    public long getMismatchCount() { return mismatchCount; }
+    public void setMismatchCount(long mismatchCount) { this.mismatchCount = mismatchCount; }
+
+    public long getUnclassifiedTransferRows() { return unclassifiedTransferRows; }
+    public void setUnclassifiedTransferRows(long unclassifiedTransferRows) {
+        this.unclassifiedTransferRows = unclassifiedTransferRows;
+    }
+
+    public List<ReconciliationMismatchDTO> getMismatches() { return mismatches; }
+    public void setMismatches(List<ReconciliationMismatchDTO> mismatches) { this.mismatches = mismatches; }
+}
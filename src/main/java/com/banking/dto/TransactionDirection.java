@@ -0,0 +1,7 @@
+package com.banking.dto;
+
+// Which way a ledger row moved its account's balance; a transfer writes a DEBIT and a CREDIT leg
+public enum TransactionDirection {
+    CREDIT,
+    DEBIT
+}
@@ -10,15 +10,15 @@ import java.time.LocalDateTime;
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("accounts")
     @Column(name = "account_id")
     private Integer accountId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "branch_id", nullable = false)
     private Branch branch;
 
@@ -39,6 +39,10 @@ public class Account {
     @Enumerated(EnumType.STRING)
     private AccountStatus status = AccountStatus.ACTIVE;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Enum for account_type
     public enum AccountType {
         SAVINGS, CHECKING, LOAN
@@ -117,4 +121,12 @@ public class Account {
     public void setStatus(AccountStatus status) {
         this.status = status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
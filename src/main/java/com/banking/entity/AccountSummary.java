@@ -1,13 +1,15 @@
 package com.banking.entity;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.Immutable;
-
-import java.math.BigDecimal;
 
+// Denormalized read model: one row per account, kept current in the writing transaction by the
+// maintenance queries in AccountSummaryRepository. The balance is not copied: readers join accounts
+// by primary key for it, so deposits, withdrawals and transfers never touch this table.
 @Entity
-@Table(name = "account_summary")
-@Immutable // View is read-only
+@Table(name = "account_summary", indexes = {
+        @Index(name = "idx_account_summary_customer", columnList = "customer_id"),
+        @Index(name = "idx_account_summary_branch", columnList = "branch_id")
+})
 public class AccountSummary {
 
     @Id
@@ -21,9 +23,6 @@ public class AccountSummary {
     @Enumerated(EnumType.STRING)
     private Account.AccountType accountType;
 
-    @Column(name = "balance")
-    private BigDecimal balance;
-
     @Column(name = "customer_id")
     private Integer customerId;
 
@@ -33,6 +32,9 @@ public class AccountSummary {
     @Column(name = "last_name")
     private String lastName;
 
+    @Column(name = "branch_id")
+    private Integer branchId;
+
     @Column(name = "branch_name")
     private String branchName;
 
@@ -41,14 +43,15 @@ public class AccountSummary {
     }
 
     public AccountSummary(Integer accountId, String accountNumber, Account.AccountType accountType,
-                          BigDecimal balance, Integer customerId, String firstName, String lastName, String branchName) {
+                          Integer customerId, String firstName, String lastName,
+                          Integer branchId, String branchName) {
         this.accountId = accountId;
         this.accountNumber = accountNumber;
         this.accountType = accountType;
-        this.balance = balance;
         this.customerId = customerId;
         this.firstName = firstName;
         this.lastName = lastName;
+        this.branchId = branchId;
         this.branchName = branchName;
     }
 
@@ -77,14 +80,6 @@ public class AccountSummary {
         this.accountType = accountType;
     }
 
-    public BigDecimal getBalance() {
-        return balance;
-    }
-
-    public void setBalance(BigDecimal balance) {
-        this.balance = balance;
-    }
-
     public Integer getCustomerId() {
         return customerId;
     }
@@ -109,6 +104,14 @@ public class AccountSummary {
         this.lastName = lastName;
     }
 
+    public Integer getBranchId() {
+        return branchId;
+    }
+
+    public void setBranchId(Integer branchId) {
+        this.branchId = branchId;
+    }
+
     public String getBranchName() {
         return branchName;
     }
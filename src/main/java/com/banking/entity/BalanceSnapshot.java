@@ -0,0 +1,63 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// An account's balance at the end of snapshot_date: every transaction dated before the next day is in it
+@Entity
+@Table(name = "balance_snapshots")
+@IdClass(BalanceSnapshot.Key.class)
+public class BalanceSnapshot {
+
+    @Id
+    @Column(name = "account_id")
+    private Integer accountId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    // Constructors
+    public BalanceSnapshot() {}
+
+    // Getters and Setters
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public void setSnapshotDate(LocalDate snapshotDate) { this.snapshotDate = snapshotDate; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    public static class Key implements Serializable {
+        private Integer accountId;
+        private LocalDate snapshotDate;
+
+        public Key() {}
+
+        public Key(Integer accountId, LocalDate snapshotDate) {
+            this.accountId = accountId;
+            this.snapshotDate = snapshotDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key
+                    && Objects.equals(accountId, key.accountId)
+                    && Objects.equals(snapshotDate, key.snapshotDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, snapshotDate);
+        }
+    }
+}
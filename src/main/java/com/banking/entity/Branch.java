@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 public class Branch {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("branches")
     @Column(name = "branch_id")
     private Integer branchId;
 
@@ -0,0 +1,94 @@
+package com.banking.entity;
+
+import com.banking.dto.TransactionType;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Rollup of one branch's transactions rows of one type on one day, as a GROUP BY over transactions
+// joined to accounts would compute it; a transfer counts once under each leg's branch
+@Entity
+@Table(name = "branch_daily_stats")
+@IdClass(BranchDailyStats.Key.class)
+public class BranchDailyStats {
+
+    @Id
+    @Column(name = "branch_id")
+    private Integer branchId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Id
+    @Column(name = "transaction_type", length = 20)
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "min_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal maxAmount;
+
+    // Constructors
+    public BranchDailyStats() {}
+
+    // Getters and Setters
+    public Integer getBranchId() { return branchId; }
+    public void setBranchId(Integer branchId) { this.branchId = branchId; }
+
+    public LocalDate getStatDate() { return statDate; }
+    public void setStatDate(LocalDate statDate) { this.statDate = statDate; }
+
+    public TransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(TransactionType transactionType) { this.transactionType = transactionType; }
+
+    public Long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Long transactionCount) { this.transactionCount = transactionCount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+
+    public static class Key implements Serializable {
+        private Integer branchId;
+        private LocalDate statDate;
+        private TransactionType transactionType;
+
+        public Key() {}
+
+        public Key(Integer branchId, LocalDate statDate, TransactionType transactionType) {
+            this.branchId = branchId;
+            this.statDate = statDate;
+            this.transactionType = transactionType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key
+                    && Objects.equals(branchId, key.branchId)
+                    && Objects.equals(statDate, key.statDate)
+                    && transactionType == key.transactionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(branchId, statDate, transactionType);
+        }
+    }
+}
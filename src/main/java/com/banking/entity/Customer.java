@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("customers")
     @Column(name = "customer_id")
     private Integer customerId;
 
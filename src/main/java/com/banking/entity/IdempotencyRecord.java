@@ -0,0 +1,42 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A money-moving request seen under an Idempotency-Key, written in the same commit as its transaction.
+// transaction_id is null only inside the transaction that claimed the key; request_hash (SHA-256 of operation and body) catches a key reused for a
+// different request
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public IdempotencyRecord() {}
+
+    // Getters and Setters
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,32 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+
+// Highest WAL sequence of a ledger shard that has been flushed to accounts/transactions; written in
+// the same transaction as the flushed rows, so recovery replays exactly what is missing
+@Entity
+@Table(name = "ledger_checkpoints")
+public class LedgerCheckpoint {
+
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(name = "flushed_sequence", nullable = false)
+    private Long flushedSequence;
+
+    // Constructors
+    public LedgerCheckpoint() {}
+
+    public LedgerCheckpoint(Integer shardId, Long flushedSequence) {
+        this.shardId = shardId;
+        this.flushedSequence = flushedSequence;
+    }
+
+    // Getters and Setters
+    public Integer getShardId() { return shardId; }
+    public void setShardId(Integer shardId) { this.shardId = shardId; }
+
+    public Long getFlushedSequence() { return flushedSequence; }
+    public void setFlushedSequence(Long flushedSequence) { this.flushedSequence = flushedSequence; }
+}
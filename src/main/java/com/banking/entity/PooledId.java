@@ -0,0 +1,18 @@
+package com.banking.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks an @Id as drawn from the shared id_generators table in blocks (see PooledTableIdGenerator).
+// The value is the sequence_name row, conventionally the entity's table name.
+@IdGeneratorType(PooledTableIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+
+    String value();
+}
@@ -0,0 +1,71 @@
+package com.banking.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.InitCommand;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.mapping.RootClass;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+// Hi/lo style allocator backed by one row per sequence in id_generators. Each round trip reserves
+// a block of IDs (pooled-lo: next_val is the next free ID), so persists need no INSERT to learn
+// their key and Hibernate can batch and reorder the inserts. Works on MySQL without sequences.
+public class PooledTableIdGenerator extends TableGenerator {
+
+    public static final String TABLE_NAME = "id_generators";
+    public static final String BLOCK_SIZE_SETTING = "banking.id.block-size";
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private final String sequenceName;
+    private final String entityTable;
+    private final String idColumn;
+
+    public PooledTableIdGenerator(PooledId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequenceName = config.value();
+        RootClass rootClass = context.getRootClass();
+        this.entityTable = rootClass.getTable().getQuotedName();
+        this.idColumn = rootClass.getIdentifier().getColumns().get(0).getQuotedName();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_SETTING,
+                serviceRegistry.requireService(ConfigurationService.class).getSettings(), DEFAULT_BLOCK_SIZE);
+        if (blockSize < 1) {
+            throw new MappingException("Setting " + BLOCK_SIZE_SETTING + " must be positive, got " + blockSize);
+        }
+
+        parameters.setProperty(TABLE_PARAM, TABLE_NAME);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, "sequence_name");
+        parameters.setProperty(VALUE_COLUMN_PARAM, "next_val");
+        parameters.setProperty(SEGMENT_VALUE_PARAM, sequenceName);
+        parameters.setProperty(INITIAL_PARAM, "1");
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(blockSize));
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    // A missing row (new table, or a sequence added to a database that already has rows) is seeded
+    // past the entity table's highest ID rather than at 1. The generator binds the sequence name and
+    // the initial value 1; its first compare-and-set then misses and it re-reads the seeded row
+    @Override
+    protected String buildInsertQuery(String formattedPhysicalTableName, SqlStringGenerationContext context) {
+        return "insert into " + formattedPhysicalTableName + " (sequence_name, next_val) "
+                + "select ?, coalesce(max(" + idColumn + "), 0) + ? from " + entityTable;
+    }
+
+    // Schema creation would otherwise insert the row at 1, and may do so before the entity table exists;
+    // leave the row to the first generate() above
+    @Override
+    protected InitCommand generateInsertInitCommand(SqlStringGenerationContext context) {
+        return new InitCommand();
+    }
+}
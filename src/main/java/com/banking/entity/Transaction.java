@@ -1,20 +1,25 @@
 package com.banking.entity;
 
+import com.banking.dto.TransactionDirection;
 import com.banking.dto.TransactionType;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_date", columnList = "account_id, transaction_date, transaction_id"),
+        @Index(name = "idx_transactions_date", columnList = "transaction_date, transaction_id")
+})
 public class Transaction {
 
+    // Block-allocated from id_generators (shared with transfer_money) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("transactions")
     @Column(name = "transaction_id")
     private Long transactionId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
 
@@ -22,6 +27,11 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
 
+    // Sign of the amount for this row's account; null only on rows written before the column existed
+    @Column(name = "direction")
+    @Enumerated(EnumType.STRING)
+    private TransactionDirection direction;
+
     @Column(name = "amount", nullable = false)
     private BigDecimal amount;
 
@@ -31,7 +41,7 @@ public class Transaction {
     @Column(name = "description")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "target_account_id")
     private Account targetAccount;
 
@@ -50,6 +60,15 @@ public class Transaction {
         this.targetAccount = targetAccount;
     }
 
+    // Deposits credit and withdrawals debit; transfer legs must set their direction explicitly
+    @PrePersist
+    void defaultDirection() {
+        if (direction == null && transactionType != TransactionType.TRANSFER) {
+            direction = transactionType == TransactionType.DEPOSIT
+                    ? TransactionDirection.CREDIT : TransactionDirection.DEBIT;
+        }
+    }
+
     // Getters and Setters
     public Long getTransactionId() { return transactionId; }
     public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
@@ -57,6 +76,8 @@ public class Transaction {
     public void setAccount(Account account) { this.account = account; }
     public TransactionType getTransactionType() { return transactionType; }
     public void setTransactionType(TransactionType transactionType) { this.transactionType = transactionType; }
+    public TransactionDirection getDirection() { return direction; }
+    public void setDirection(TransactionDirection direction) { this.direction = direction; }
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
     public LocalDateTime getTransactionDate() { return transactionDate; }
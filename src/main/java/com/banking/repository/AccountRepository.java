@@ -1,10 +1,18 @@
 package com.banking.repository;
 
+import com.banking.dto.AccountDTO;
 import com.banking.entity.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,8 +20,45 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
-    List<Account> findByCustomerCustomerId(Integer customerId);
+    // Reads project straight into AccountDTO; the customer and branch IDs come from the FK columns
+    String SELECT_DTO = "SELECT new com.banking.dto.AccountDTO(a.accountId, a.customer.customerId, " +
+            "a.branch.branchId, a.accountType, a.accountNumber, a.balance, a.status) FROM Account a ";
+
+    @Query(SELECT_DTO + "WHERE a.customer.customerId = :customerId ORDER BY a.accountId")
+    List<AccountDTO> findDTOsByCustomerId(@Param("customerId") Integer customerId);
+
+    // One page of accounts; null filters are ignored
+    @Query(SELECT_DTO + "WHERE (:status IS NULL OR a.status = :status) " +
+            "AND (:accountType IS NULL OR a.accountType = :accountType) " +
+            "AND (:branchId IS NULL OR a.branch.branchId = :branchId) " +
+            "AND (:minBalance IS NULL OR a.balance >= :minBalance) " +
+            "AND (:maxBalance IS NULL OR a.balance <= :maxBalance)")
+    Slice<AccountDTO> findAccountPage(@Param("status") Account.AccountStatus status,
+                                      @Param("accountType") Account.AccountType accountType,
+                                      @Param("branchId") Integer branchId,
+                                      @Param("minBalance") BigDecimal minBalance,
+                                      @Param("maxBalance") BigDecimal maxBalance,
+                                      Pageable pageable);
 
     @Query("SELECT COUNT(t) > 0 FROM Transaction t WHERE t.account.accountId = :accountId")
     boolean hasAssociatedTransactions(@Param("accountId") Integer accountId);
+
+    // Read the balance under a row lock (SELECT ... FOR UPDATE) without touching customer or branch rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.balance FROM Account a WHERE a.accountId = :accountId")
+    Optional<BigDecimal> findBalanceForUpdate(@Param("accountId") Integer accountId);
+
+    // Lock several accounts at once, in ascending ID order so concurrent lockers can't deadlock;
+    // rows are [accountId, balance]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.accountId, a.balance FROM Account a WHERE a.accountId IN :accountIds ORDER BY a.accountId")
+    List<Object[]> findBalancesForUpdate(@Param("accountIds") Collection<Integer> accountIds);
+
+    // Apply a balance change in one guarded statement; returns 0 if the account is missing or the
+    // change would take the balance below zero. The version is bumped so entity-based writers notice,
+    // and the persistence context is cleared so no stale Account instance outlives the update.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta, a.version = a.version + 1 " +
+            "WHERE a.accountId = :accountId AND a.balance + :delta >= 0")
+    int applyBalanceDelta(@Param("accountId") Integer accountId, @Param("delta") BigDecimal delta);
 }
\ No newline at end of file
@@ -1,12 +1,81 @@
 package com.banking.repository;
 
+import com.banking.dto.AccountSummaryDTO;
+import com.banking.entity.Account;
 import com.banking.entity.AccountSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccountSummaryRepository extends JpaRepository<AccountSummary, Integer> {
-    List<AccountSummary> findByCustomerId(Integer customerId);
-}
\ No newline at end of file
+    // The balance is read from accounts by primary key rather than copied here, so a balance change
+    // stays one UPDATE of accounts
+
+    @Query("SELECT new com.banking.dto.AccountSummaryDTO(s.accountId, s.accountNumber, s.accountType, a.balance, " +
+            "s.customerId, s.firstName, s.lastName, s.branchName) " +
+            "FROM AccountSummary s JOIN Account a ON a.accountId = s.accountId WHERE s.accountId = :accountId")
+    Optional<AccountSummaryDTO> findSummary(@Param("accountId") Integer accountId);
+
+    @Query("SELECT new com.banking.dto.AccountSummaryDTO(s.accountId, s.accountNumber, s.accountType, a.balance, " +
+            "s.customerId, s.firstName, s.lastName, s.branchName) " +
+            "FROM AccountSummary s JOIN Account a ON a.accountId = s.accountId WHERE s.customerId = :customerId")
+    List<AccountSummaryDTO> findSummariesByCustomerId(@Param("customerId") Integer customerId);
+
+    // One page of summaries projected straight into DTOs; null filters are ignored
+    @Query("SELECT new com.banking.dto.AccountSummaryDTO(s.accountId, s.accountNumber, s.accountType, a.balance, " +
+            "s.customerId, s.firstName, s.lastName, s.branchName) " +
+            "FROM AccountSummary s JOIN Account a ON a.accountId = s.accountId " +
+            "WHERE (:accountType IS NULL OR s.accountType = :accountType) " +
+            "AND (:branchId IS NULL OR s.branchId = :branchId) " +
+            "AND (:minBalance IS NULL OR a.balance >= :minBalance) " +
+            "AND (:maxBalance IS NULL OR a.balance <= :maxBalance)")
+    Slice<AccountSummaryDTO> findSummaryPage(@Param("accountType") Account.AccountType accountType,
+                                             @Param("branchId") Integer branchId,
+                                             @Param("minBalance") BigDecimal minBalance,
+                                             @Param("maxBalance") BigDecimal maxBalance,
+                                             Pageable pageable);
+
+    // Maintenance queries: each runs inside the transaction that changed the source rows
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO AccountSummary (accountId, accountNumber, accountType, customerId, " +
+            "firstName, lastName, branchId, branchName) " +
+            "SELECT a.accountId, a.accountNumber, a.accountType, c.customerId, " +
+            "c.firstName, c.lastName, b.branchId, b.branchName " +
+            "FROM Account a JOIN a.customer c JOIN a.branch b WHERE a.accountId = :accountId")
+    int insertForAccount(@Param("accountId") Integer accountId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccountSummary s SET " +
+            "s.accountType = (SELECT a.accountType FROM Account a WHERE a.accountId = s.accountId) " +
+            "WHERE s.accountId = :accountId")
+    int refreshAccount(@Param("accountId") Integer accountId);
+
+    @Modifying
+    @Query("UPDATE AccountSummary s SET s.firstName = :firstName, s.lastName = :lastName " +
+            "WHERE s.customerId = :customerId")
+    int updateCustomerName(@Param("customerId") Integer customerId,
+                           @Param("firstName") String firstName,
+                           @Param("lastName") String lastName);
+
+    @Modifying
+    @Query("UPDATE AccountSummary s SET s.branchName = :branchName WHERE s.branchId = :branchId")
+    int updateBranchName(@Param("branchId") Integer branchId, @Param("branchName") String branchName);
+
+    @Modifying
+    @Query("DELETE FROM AccountSummary s WHERE s.accountId = :accountId")
+    int deleteForAccount(@Param("accountId") Integer accountId);
+
+    @Modifying
+    @Query("DELETE FROM AccountSummary s WHERE s.customerId = :customerId")
+    int deleteForCustomer(@Param("customerId") Integer customerId);
+}
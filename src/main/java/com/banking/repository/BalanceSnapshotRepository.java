@@ -0,0 +1,21 @@
+package com.banking.repository;
+
+import com.banking.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.Key> {
+
+    // Latest snapshot taken at the end of a day before the given one
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(Integer accountId,
+                                                                                               LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM BalanceSnapshot s WHERE s.accountId = :accountId")
+    int deleteForAccount(@Param("accountId") Integer accountId);
+}
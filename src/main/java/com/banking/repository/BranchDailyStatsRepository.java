@@ -0,0 +1,23 @@
+package com.banking.repository;
+
+import com.banking.dto.BranchDailyStatsDTO;
+import com.banking.entity.BranchDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BranchDailyStatsRepository extends JpaRepository<BranchDailyStats, BranchDailyStats.Key> {
+
+    String SELECT_DTO = "SELECT new com.banking.dto.BranchDailyStatsDTO(s.branchId, s.statDate, s.transactionType, " +
+            "s.transactionCount, s.totalAmount, s.minAmount, s.maxAmount) FROM BranchDailyStats s ";
+
+    // Primary-key range reads: one day is at most one row per transaction type
+    @Query(SELECT_DTO + "WHERE s.branchId = :branchId AND s.statDate >= :startDate AND s.statDate <= :endDate " +
+            "ORDER BY s.statDate, s.transactionType")
+    List<BranchDailyStatsDTO> findStats(@Param("branchId") Integer branchId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+}
@@ -1,6 +1,9 @@
 package com.banking.repository;
 
+import com.banking.dto.CustomerDTO;
 import com.banking.entity.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +14,12 @@ public interface CustomerRepository extends JpaRepository<Customer, Integer> {
 
     Optional<Customer> findByEmail(String email);
 
+    // One page of customers projected straight into DTOs; a null last name is ignored
+    @Query("SELECT new com.banking.dto.CustomerDTO(c.customerId, c.firstName, c.lastName, c.email, c.phone, " +
+            "c.address, c.dateOfBirth) FROM Customer c " +
+            "WHERE (:lastName IS NULL OR c.lastName = :lastName)")
+    Slice<CustomerDTO> findCustomerPage(@Param("lastName") String lastName, Pageable pageable);
+
     @Query("SELECT COUNT(a) > 0 FROM Account a WHERE a.customer.customerId = :customerId")
     boolean hasAssociatedAccounts(@Param("customerId") Integer customerId);
 }
\ No newline at end of file
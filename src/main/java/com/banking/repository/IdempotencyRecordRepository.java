@@ -0,0 +1,31 @@
+package com.banking.repository;
+
+import com.banking.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // A plain INSERT, unlike save(), fails on an existing key: that failure is how a key is claimed
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at) " +
+            "VALUES (:key, :requestHash, :createdAt)", nativeQuery = true)
+    void claim(@Param("key") String key, @Param("requestHash") String requestHash,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.transactionId = :transactionId WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("transactionId") Long transactionId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,8 @@
+package com.banking.repository;
+
+import com.banking.entity.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Integer> {
+
+}
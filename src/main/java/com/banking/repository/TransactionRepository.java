@@ -1,14 +1,94 @@
 package com.banking.repository;
 
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
 import com.banking.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountAccountId(Integer accountId);
-    List<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Reads project straight into TransactionDTO: only the transaction row's own columns are selected
+    // (the account IDs come from the FK columns), and nothing is loaded into the persistence context
+    String SELECT_DTO = "SELECT new com.banking.dto.TransactionDTO(t.transactionId, t.account.accountId, " +
+            "t.transactionType, t.amount, t.transactionDate, t.description, t.targetAccount.accountId) " +
+            "FROM Transaction t ";
+
+    // A row's signed effect on its account's balance. Rows written before the direction column existed
+    // fall back to their type, as in reconciliation and the snapshot job: deposits credit, withdrawals
+    // debit, and a legacy transfer leg can't be told apart, so it counts as zero
+    String SIGNED_AMOUNT = "CASE WHEN t.direction = com.banking.dto.TransactionDirection.CREDIT " +
+            "OR (t.direction IS NULL AND t.transactionType = com.banking.dto.TransactionType.DEPOSIT) THEN t.amount " +
+            "WHEN t.direction = com.banking.dto.TransactionDirection.DEBIT " +
+            "OR (t.direction IS NULL AND t.transactionType <> com.banking.dto.TransactionType.TRANSFER) THEN -t.amount " +
+            "ELSE 0 END";
+
+    // One page of transactions; null filters are ignored
+    @Query(SELECT_DTO + "WHERE (:accountId IS NULL OR t.account.accountId = :accountId) " +
+            "AND (:transactionType IS NULL OR t.transactionType = :transactionType)")
+    Slice<TransactionDTO> findTransactionPage(@Param("accountId") Integer accountId,
+                                              @Param("transactionType") TransactionType transactionType,
+                                              Pageable pageable);
+
+    // Account history, newest first; seeks on idx_transactions_account_date
+    @Query(SELECT_DTO + "WHERE t.account.accountId = :accountId " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionDTO> findAccountHistory(@Param("accountId") Integer accountId, Limit limit);
+
+    @Query(SELECT_DTO + "WHERE t.account.accountId = :accountId " +
+            "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.transactionId < :id)) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionDTO> findAccountHistoryBefore(@Param("accountId") Integer accountId,
+                                                  @Param("date") LocalDateTime date,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    // Date range, oldest first; seeks on idx_transactions_date
+    @Query(SELECT_DTO + "WHERE t.transactionDate >= :startDate AND t.transactionDate <= :endDate " +
+            "ORDER BY t.transactionDate, t.transactionId")
+    List<TransactionDTO> findDateRange(@Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       Limit limit);
+
+    @Query(SELECT_DTO + "WHERE t.transactionDate >= :startDate AND t.transactionDate <= :endDate " +
+            "AND (t.transactionDate > :date OR (t.transactionDate = :date AND t.transactionId > :id)) " +
+            "ORDER BY t.transactionDate, t.transactionId")
+    List<TransactionDTO> findDateRangeAfter(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate,
+                                            @Param("date") LocalDateTime date,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    // Forward-only cursor over a date range for exports; the fetch size keeps the driver from buffering the result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "WHERE t.transactionDate >= :startDate AND t.transactionDate <= :endDate " +
+            "ORDER BY t.transactionDate, t.transactionId")
+    Stream<TransactionDTO> streamDateRange(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+
+    // Net balance change (credits minus debits) of an account's rows dated in [from, to]
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM Transaction t WHERE t.account.accountId = :accountId " +
+            "AND t.transactionDate >= :from AND t.transactionDate <= :to")
+    BigDecimal sumBalanceChange(@Param("accountId") Integer accountId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    // Net balance change of an account's rows dated after the given time
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM Transaction t WHERE t.account.accountId = :accountId " +
+            "AND t.transactionDate > :after")
+    BigDecimal sumBalanceChangeAfter(@Param("accountId") Integer accountId, @Param("after") LocalDateTime after);
+}
@@ -1,37 +1,76 @@
 package com.banking.services;
 
 import com.banking.dto.AccountDTO;
+import com.banking.dto.PageDTO;
 import com.banking.entity.Account;
 import com.banking.entity.Branch;
 import com.banking.entity.Customer;
 import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountSummaryRepository;
+import com.banking.repository.BalanceSnapshotRepository;
 import com.banking.repository.BranchRepository;
 import com.banking.repository.CustomerRepository;
 import com.banking.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class AccountService {
 
+    private static final Map<String, String> SORTABLE = Map.of(
+            "accountId", "accountId",
+            "accountNumber", "accountNumber",
+            "accountType", "accountType",
+            "balance", "balance",
+            "status", "status",
+            "openedAt", "openedAt");
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private AccountSummaryRepository accountSummaryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
     @Autowired
     private CustomerRepository customerRepository;
 
     @Autowired
     private BranchRepository branchRepository;
 
-    public List<AccountDTO> getAllAccounts() {
-        return accountRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PageRequests pageRequests;
+
+    // Present only with banking.ledger.enabled=true; then balances may only move through it
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    // One page of accounts matching the optional filters
+    public PageDTO<AccountDTO> getAccounts(Account.AccountStatus status, Account.AccountType accountType,
+                                           Integer branchId, BigDecimal minBalance, BigDecimal maxBalance,
+                                           Integer page, Integer size, String sort) {
+        return pageRequests.toPage(accountRepository.findAccountPage(status, accountType, branchId,
+                minBalance, maxBalance, pageRequests.of(page, size, sort, SORTABLE, "accountId")));
     }
 
     public AccountDTO getAccountById(Integer accountId) {
@@ -41,11 +80,8 @@ public class AccountService {
     }
 
     public List<AccountDTO> getAccountsByCustomerId(Integer customerId) {
-        customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
-        return accountRepository.findByCustomerCustomerId(customerId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        customerService.getCustomerById(customerId);
+        return accountRepository.findDTOsByCustomerId(customerId);
     }
 
     public AccountDTO getAccountByAccountNumber(String accountNumber) {
@@ -56,10 +92,12 @@ public class AccountService {
 
     @Transactional
     public AccountDTO createAccount(AccountDTO accountDTO) {
-        Customer customer = customerRepository.findById(accountDTO.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + accountDTO.getCustomerId()));
-        Branch branch = branchRepository.findById(accountDTO.getBranchId())
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + accountDTO.getBranchId()));
+        // Existence checks are served from the customer and branch caches; the FKs still guard a
+        // concurrent delete
+        customerService.getCustomerById(accountDTO.getCustomerId());
+        branchService.getBranchById(accountDTO.getBranchId());
+        Customer customer = customerRepository.getReferenceById(accountDTO.getCustomerId());
+        Branch branch = branchRepository.getReferenceById(accountDTO.getBranchId());
         if (accountRepository.findByAccountNumber(accountDTO.getAccountNumber()).isPresent()) {
             throw new IllegalArgumentException("Account number already exists: " + accountDTO.getAccountNumber());
         }
@@ -69,26 +107,40 @@ public class AccountService {
         account.setBranch(branch);
 
         Account savedAccount = accountRepository.save(account);
+        accountSummaryRepository.insertForAccount(savedAccount.getAccountId());
         return convertToDTO(savedAccount);
     }
 
-    @Transactional
+    // Balance edits race with deposits and withdrawals, so a lost version check is retried
     public AccountDTO updateAccount(Integer accountId, AccountDTO accountDTO) {
+        return optimisticRetry.execute("account_update",
+                () -> transactionTemplate.execute(status -> applyAccountUpdate(accountId, accountDTO)));
+    }
+
+    private AccountDTO applyAccountUpdate(Integer accountId, AccountDTO accountDTO) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + accountId));
 
         account.setAccountType(accountDTO.getAccountType());
         account.setStatus(accountDTO.getStatus());
         if (accountDTO.getBalance() != null) {
+            if (ledgerEngine != null && accountDTO.getBalance().compareTo(account.getBalance()) != 0) {
+                throw new IllegalStateException("Balances cannot be edited while the in-memory ledger is enabled");
+            }
             account.setBalance(accountDTO.getBalance());
         }
 
         Account updatedAccount = accountRepository.save(account);
+        accountSummaryRepository.refreshAccount(accountId);
         return convertToDTO(updatedAccount);
     }
 
+    // The ledger may hold the account's balance and unflushed rows in memory, so it must not disappear under it
     @Transactional
     public void deleteAccount(Integer accountId) {
+        if (ledgerEngine != null) {
+            throw new IllegalStateException("Accounts cannot be deleted while the in-memory ledger is enabled");
+        }
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + accountId));
 
@@ -100,6 +152,8 @@ public class AccountService {
             throw new IllegalStateException("Cannot delete account: It has associated transactions.");
         }
 
+        accountSummaryRepository.deleteForAccount(accountId);
+        balanceSnapshotRepository.deleteForAccount(accountId);
         accountRepository.delete(account);
     }
 
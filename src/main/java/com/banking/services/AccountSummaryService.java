@@ -1,57 +1,54 @@
 package com.banking.services;
 
 import com.banking.dto.AccountSummaryDTO;
-import com.banking.entity.AccountSummary;
+import com.banking.dto.PageDTO;
+import com.banking.entity.Account;
 import com.banking.exception.ResourceNotFoundException;
 import com.banking.repository.AccountSummaryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class AccountSummaryService {
 
+    private static final Map<String, String> SORTABLE = Map.of(
+            "accountId", "accountId",
+            "accountNumber", "accountNumber",
+            "accountType", "accountType",
+            "balance", "a.balance",
+            "lastName", "lastName",
+            "branchName", "branchName");
+
     @Autowired
     private AccountSummaryRepository accountSummaryRepository;
 
-    // Get all account summaries
-    public List<AccountSummaryDTO> getAllAccountSummaries() {
-        return accountSummaryRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private PageRequests pageRequests;
+
+    // Get one page of account summaries matching the optional filters
+    public PageDTO<AccountSummaryDTO> getAccountSummaries(Account.AccountType accountType, Integer branchId,
+                                                          BigDecimal minBalance, BigDecimal maxBalance,
+                                                          Integer page, Integer size, String sort) {
+        return pageRequests.toPage(accountSummaryRepository.findSummaryPage(accountType, branchId,
+                minBalance, maxBalance, pageRequests.of(page, size, sort, SORTABLE, "accountId")));
     }
 
     // Get account summary by account ID
     public AccountSummaryDTO getAccountSummaryById(Integer accountId) {
-        AccountSummary summary = accountSummaryRepository.findById(accountId)
+        return accountSummaryRepository.findSummary(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account summary not found with id: " + accountId));
-        return convertToDTO(summary);
     }
 
     // Get account summaries by customer ID
     public List<AccountSummaryDTO> getAccountSummariesByCustomerId(Integer customerId) {
-        List<AccountSummary> summaries = accountSummaryRepository.findByCustomerId(customerId);
+        List<AccountSummaryDTO> summaries = accountSummaryRepository.findSummariesByCustomerId(customerId);
         if (summaries.isEmpty()) {
             throw new ResourceNotFoundException("No account summaries found for customer id: " + customerId);
         }
-        return summaries.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-
-    // Convert Entity to DTO
-    private AccountSummaryDTO convertToDTO(AccountSummary summary) {
-        return new AccountSummaryDTO(
-                summary.getAccountId(),
-                summary.getAccountNumber(),
-                summary.getAccountType(),
-                summary.getBalance(),
-                summary.getCustomerId(),
-                summary.getFirstName(),
-                summary.getLastName(),
-                summary.getBranchName()
-        );
+        return summaries;
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.banking.services;
+
+import com.banking.dto.OutboxEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Default sink: each event goes to in-process @EventListener methods taking OutboxEventDTO, synchronously
+// on the relay thread. A listener that throws fails the batch, so every listener sees it again
+@Component
+@ConditionalOnProperty(name = "banking.outbox.sink", havingValue = "events", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxEventDTO> events) {
+        for (OutboxEventDTO event : events) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
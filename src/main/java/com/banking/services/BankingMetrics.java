@@ -0,0 +1,60 @@
+package com.banking.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Business counters that a timer's outcome tag can't express on its own
+@Component
+public class BankingMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // A deposit/withdrawal/transfer/batch item refused because the balance would go negative
+    public void insufficientFunds(String operation) {
+        Counter.builder("banking.insufficient_funds")
+                .description("Operations refused for insufficient funds")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // A transfer the engine could not complete, by engine and reason
+    public void transferFailed(String engine, String reason) {
+        Counter.builder("banking.transfer.failures")
+                .description("Transfers the transfer engine failed to complete")
+                .tag("engine", engine)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // A request answered from an earlier one with the same Idempotency-Key (source: memory, database, in_flight)
+    public void idempotentReplay(String source) {
+        Counter.builder("banking.idempotency.replays")
+                .description("Requests answered from an earlier request with the same Idempotency-Key")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // A ledger flush batch MySQL refused (outcome: retrying, stalled once the shard gives up on it)
+    public void ledgerFlushFailed(String outcome) {
+        Counter.builder("banking.ledger.flush_failures")
+                .description("Ledger flush batches that failed to reach MySQL")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Outbox events handed to the sink (outcome: published, failed)
+    public void outboxRelayed(String outcome, int count) {
+        Counter.builder("banking.outbox.events")
+                .description("Outbox events handed to the configured sink")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(count);
+    }
+}
@@ -1,46 +1,127 @@
 package com.banking.services;
 
+import com.banking.dto.BranchDTO;
+import com.banking.dto.BranchDailyStatsDTO;
 import com.banking.entity.Branch;
+import com.banking.repository.AccountSummaryRepository;
+import com.banking.repository.BranchDailyStatsRepository;
 import com.banking.repository.BranchRepository;
 import com.banking.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
+// Branches are reference data: reads are served from the Caffeine caches below (bounded, TTL,
+// stats exported as cache.gets/cache.puts/cache.evictions) and every write evicts or refreshes them.
 @Service
 public class BranchService {
 
+    public static final String BRANCH_CACHE = "branches";
+    public static final String BRANCH_LIST_CACHE = "branch-list";
+
     @Autowired
     private BranchRepository branchRepository;
 
-    public List<Branch> getAllBranches() {
-        return branchRepository.findAll();
+    @Autowired
+    private AccountSummaryRepository accountSummaryRepository;
+
+    @Autowired
+    private BranchDailyStatsRepository branchDailyStatsRepository;
+
+    @Value("${banking.branch-stats.max-range-days:366}")
+    private int maxStatsRangeDays;
+
+    @Cacheable(cacheNames = BRANCH_LIST_CACHE, key = "'all'")
+    public List<BranchDTO> getAllBranches() {
+        return branchRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
-    public Branch getBranchById(Integer id) {
-        return branchRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + id));
+    @Cacheable(cacheNames = BRANCH_CACHE, key = "#id")
+    public BranchDTO getBranchById(Integer id) {
+        return convertToDTO(findBranch(id));
     }
 
-    public Branch createBranch(Branch branch) {
-        return branchRepository.save(branch);
+    // Per-day, per-type transaction rollups from branch_daily_stats; days without transactions have no rows
+    public List<BranchDailyStatsDTO> getStats(Integer id, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxStatsRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxStatsRangeDays + " days");
+        }
+        if (!branchRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Branch not found with id: " + id);
+        }
+        return branchDailyStatsRepository.findStats(id, startDate, endDate);
     }
 
-    public Branch updateBranch(Integer id, Branch branchDetails) {
-        Branch branch = branchRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + id));
+    @CacheEvict(cacheNames = BRANCH_LIST_CACHE, allEntries = true)
+    public BranchDTO createBranch(BranchDTO branchDTO) {
+        Branch branch = convertToEntity(branchDTO);
+        return convertToDTO(branchRepository.save(branch));
+    }
+
+    @Caching(put = @CachePut(cacheNames = BRANCH_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = BRANCH_LIST_CACHE, allEntries = true))
+    @Transactional
+    public BranchDTO updateBranch(Integer id, BranchDTO branchDetails) {
+        Branch branch = findBranch(id);
 
         branch.setBranchName(branchDetails.getBranchName());
         branch.setBranchAddress(branchDetails.getBranchAddress());
         branch.setBranchPhone(branchDetails.getBranchPhone());
 
-        return branchRepository.save(branch);
+        Branch updatedBranch = branchRepository.save(branch);
+        accountSummaryRepository.updateBranchName(id, updatedBranch.getBranchName());
+        return convertToDTO(updatedBranch);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BRANCH_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = BRANCH_LIST_CACHE, allEntries = true)
+    })
     public void deleteBranch(Integer id) {
-        Branch branch = branchRepository.findById(id)
+        Branch branch = findBranch(id);
+        try {
+            branchRepository.delete(branch);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Cannot delete branch due to existing accounts");
+        }
+    }
+
+    private Branch findBranch(Integer id) {
+        return branchRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Branch not found with id: " + id));
-        branchRepository.delete(branch);
     }
-}
\ No newline at end of file
+
+    private BranchDTO convertToDTO(Branch branch) {
+        return new BranchDTO(
+                branch.getBranchId(),
+                branch.getBranchName(),
+                branch.getBranchAddress(),
+                branch.getBranchPhone()
+        );
+    }
+
+    private Branch convertToEntity(BranchDTO branchDTO) {
+        Branch branch = new Branch();
+        branch.setBranchId(branchDTO.getBranchId());
+        branch.setBranchName(branchDTO.getBranchName());
+        branch.setBranchAddress(branchDTO.getBranchAddress());
+        branch.setBranchPhone(branchDTO.getBranchPhone());
+        return branch;
+    }
+}
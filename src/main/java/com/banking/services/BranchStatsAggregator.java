@@ -0,0 +1,180 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Keeps branch_daily_stats current without touching the write path's transaction: committed rows are
+// folded into in-memory per-account deltas, and a scheduled flush resolves their branches and applies
+// them as batched increments. A crash loses at most one flush interval of deltas, so a nightly job
+// recomputes the previous day from transactions and corrects any drift.
+//
+// Increments only ever apply to today. Deltas dated earlier are dropped at flush, on every instance, so
+// the recount is the only writer for past days: a row it counted can't be added again by a delta that
+// was still pending here or on another instance when it ran.
+@Component
+public class BranchStatsAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(BranchStatsAggregator.class);
+
+    private static final int BRANCH_LOOKUP_CHUNK = 1000;
+
+    private static final String INCREMENT = "UPDATE branch_daily_stats SET transaction_count = transaction_count + ?, "
+            + "total_amount = total_amount + ?, min_amount = LEAST(min_amount, ?), max_amount = GREATEST(max_amount, ?) "
+            + "WHERE branch_id = ? AND stat_date = ? AND transaction_type = ?";
+
+    private static final String INSERT = "INSERT INTO branch_daily_stats (transaction_count, total_amount, "
+            + "min_amount, max_amount, branch_id, stat_date, transaction_type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_DAY = "DELETE FROM branch_daily_stats WHERE stat_date = ?";
+
+    private static final String REBUILD_DAY = "INSERT INTO branch_daily_stats (branch_id, stat_date, transaction_type, "
+            + "transaction_count, total_amount, min_amount, max_amount) "
+            + "SELECT a.branch_id, ?, t.transaction_type, COUNT(*), SUM(t.amount), MIN(t.amount), MAX(t.amount) "
+            + "FROM transactions t JOIN accounts a ON a.account_id = t.account_id "
+            + "WHERE t.transaction_date >= ? AND t.transaction_date < ? "
+            + "GROUP BY a.branch_id, t.transaction_type";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<AccountDay, Stats> pending = new ConcurrentHashMap<>();
+
+    // Only committed rows count; fallbackExecution covers writes made outside a transaction
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        AccountDay key = new AccountDay(event.getAccountId(), event.getTransactionDate().toLocalDate(),
+                event.getTransactionType());
+        pending.merge(key, Stats.of(event.getAmount()), Stats::combine);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.branch-stats.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() hands over each entry atomically; deltas merged after that start a fresh entry
+        Map<AccountDay, Stats> drained = new HashMap<>();
+        for (AccountDay key : pending.keySet()) {
+            Stats stats = pending.remove(key);
+            if (stats != null) {
+                drained.put(key, stats);
+            }
+        }
+        LocalDate today = LocalDate.now();
+        drained.keySet().removeIf(key -> key.day().isBefore(today));
+        try {
+            apply(byBranch(drained));
+        } catch (RuntimeException e) {
+            drained.forEach((key, stats) -> pending.merge(key, stats, Stats::combine));
+            log.warn("Branch stats flush failed; {} deltas kept for the next attempt", drained.size(), e);
+        }
+    }
+
+    @Scheduled(cron = "${banking.branch-stats.rebuild-cron:0 15 0 * * *}")
+    public void rebuildPreviousDay() {
+        rebuild(LocalDate.now().minusDays(1));
+    }
+
+    // Recomputes one past day from transactions. Today is still taking increments, so it can't be recounted
+    public synchronized void rebuild(LocalDate day) {
+        if (!day.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Only days before today can be rebuilt");
+        }
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_DAY, Date.valueOf(day));
+            jdbcTemplate.update(REBUILD_DAY, Date.valueOf(day), start, end);
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    private Map<BranchDay, Stats> byBranch(Map<AccountDay, Stats> drained) {
+        List<Integer> accountIds = drained.keySet().stream().map(AccountDay::accountId).distinct().toList();
+        Map<Integer, Integer> branches = new HashMap<>();
+        for (int from = 0; from < accountIds.size(); from += BRANCH_LOOKUP_CHUNK) {
+            List<Integer> chunk = accountIds.subList(from, Math.min(from + BRANCH_LOOKUP_CHUNK, accountIds.size()));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT account_id, branch_id FROM accounts WHERE account_id IN (" + in + ")",
+                    rs -> { branches.put(rs.getInt(1), rs.getInt(2)); }, chunk.toArray());
+        }
+        // Sorted, so concurrent flushes from several instances update rows in the same order
+        Map<BranchDay, Stats> result = new TreeMap<>(BranchDay.ORDER);
+        drained.forEach((key, stats) -> {
+            Integer branchId = branches.get(key.accountId());
+            if (branchId != null) {
+                result.merge(new BranchDay(branchId, key.day(), key.type()), stats, Stats::combine);
+            }
+        });
+        return result;
+    }
+
+    private void apply(Map<BranchDay, Stats> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(rollups.size());
+        rollups.forEach((key, stats) -> rows.add(new Object[]{stats.count(), stats.sum(), stats.min(), stats.max(),
+                key.branchId(), Date.valueOf(key.day()), key.type().name()}));
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] updated = jdbcTemplate.batchUpdate(INCREMENT, rows);
+            List<Object[]> missing = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    missing.add(rows.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT, missing);
+            }
+        });
+    }
+
+    private record AccountDay(Integer accountId, LocalDate day, TransactionType type) {}
+
+    private record BranchDay(Integer branchId, LocalDate day, TransactionType type) {
+        static final Comparator<BranchDay> ORDER = Comparator.comparing(BranchDay::branchId)
+                .thenComparing(BranchDay::day)
+                .thenComparing(BranchDay::type);
+    }
+
+    private record Stats(long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+        static Stats of(BigDecimal amount) {
+            return new Stats(1, amount, amount, amount);
+        }
+
+        Stats combine(Stats other) {
+            return new Stats(count + other.count, sum.add(other.sum), min.min(other.min), max.max(other.max));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.services;
+
+import com.banking.dto.CustomerDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// CustomerDTOs cached under both keys (ID and email) in the Caffeine-backed caches configured by
+// spring.cache.*. Invalidation runs after the writing transaction commits, and a generation counter
+// stops a lookup that raced with a write from re-populating the cache with the value it replaced.
+@Component
+public class CustomerCache {
+
+    public static final String BY_ID = "customers";
+    public static final String BY_EMAIL = "customers-by-email";
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Cache byId;
+    private final Cache byEmail;
+
+    @Autowired
+    public CustomerCache(CacheManager cacheManager) {
+        this.byId = cacheManager.getCache(BY_ID);
+        this.byEmail = cacheManager.getCache(BY_EMAIL);
+    }
+
+    public CustomerDTO getById(Integer customerId, Supplier<Optional<CustomerDTO>> loader) {
+        CustomerDTO cached = byId.get(customerId, CustomerDTO.class);
+        return cached != null ? cached : load(loader);
+    }
+
+    public CustomerDTO getByEmail(String email, Supplier<Optional<CustomerDTO>> loader) {
+        CustomerDTO cached = byEmail.get(email, CustomerDTO.class);
+        return cached != null ? cached : load(loader);
+    }
+
+    // Drops the customer under its ID and every email it was cached under (old and new on a change)
+    public void invalidate(Integer customerId, String... emails) {
+        Runnable eviction = () -> {
+            generation.incrementAndGet();
+            byId.evict(customerId);
+            for (String email : emails) {
+                if (email != null) {
+                    byEmail.evict(email);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    // Misses return null, so callers decide how to report an unknown customer
+    private CustomerDTO load(Supplier<Optional<CustomerDTO>> loader) {
+        long observed = generation.get();
+        CustomerDTO customer = loader.get().orElse(null);
+        if (customer != null && generation.get() == observed) {
+            byId.put(customer.getCustomerId(), customer);
+            byEmail.put(customer.getEmail(), customer);
+        }
+        return customer;
+    }
+}
@@ -1,41 +1,63 @@
 package com.banking.services;
 
 import com.banking.dto.CustomerDTO;
+import com.banking.dto.PageDTO;
 import com.banking.entity.Customer;
 import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.AccountSummaryRepository;
 import com.banking.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class CustomerService {
 
+    private static final Map<String, String> SORTABLE = Map.of(
+            "customerId", "customerId",
+            "firstName", "firstName",
+            "lastName", "lastName",
+            "email", "email",
+            "createdAt", "createdAt");
+
     @Autowired
     private CustomerRepository customerRepository;
 
-    // Get all customers
-    public List<CustomerDTO> getAllCustomers() {
-        return customerRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private AccountSummaryRepository accountSummaryRepository;
+
+    @Autowired
+    private CustomerCache customerCache;
+
+    @Autowired
+    private PageRequests pageRequests;
+
+    // Get one page of customers, optionally filtered by last name
+    public PageDTO<CustomerDTO> getCustomers(String lastName, Integer page, Integer size, String sort) {
+        return pageRequests.toPage(customerRepository.findCustomerPage(lastName,
+                pageRequests.of(page, size, sort, SORTABLE, "customerId")));
     }
 
     // Get customer by ID
     public CustomerDTO getCustomerById(Integer customerId) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
-        return convertToDTO(customer);
+        CustomerDTO customer = customerCache.getById(customerId,
+                () -> customerRepository.findById(customerId).map(this::convertToDTO));
+        if (customer == null) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
+        return customer;
     }
 
     // Get customer by email
     public CustomerDTO getCustomerByEmail(String email) {
-        Customer customer = customerRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with email: " + email));
-        return convertToDTO(customer);
+        CustomerDTO customer = customerCache.getByEmail(email,
+                () -> customerRepository.findByEmail(email).map(this::convertToDTO));
+        if (customer == null) {
+            throw new ResourceNotFoundException("Customer not found with email: " + email);
+        }
+        return customer;
     }
 
     // Create a new customer
@@ -56,6 +78,7 @@ public class CustomerService {
     public CustomerDTO updateCustomer(Integer customerId, CustomerDTO customerDTO) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+        customerCache.invalidate(customerId, customer.getEmail(), customerDTO.getEmail());
 
         // Check for duplicate email (if changed)
         if (customerDTO.getEmail() != null && !customerDTO.getEmail().equals(customer.getEmail())) {
@@ -83,6 +106,8 @@ public class CustomerService {
         }
 
         Customer updatedCustomer = customerRepository.save(customer);
+        accountSummaryRepository.updateCustomerName(customerId, updatedCustomer.getFirstName(),
+                updatedCustomer.getLastName());
         return convertToDTO(updatedCustomer);
     }
 
@@ -94,7 +119,9 @@ public class CustomerService {
 
         // Check for associated accounts (due to CASCADE in schema)
         // Deletion will cascade to accounts and their transactions
+        accountSummaryRepository.deleteForCustomer(customerId);
         customerRepository.delete(customer);
+        customerCache.invalidate(customerId, customer.getEmail());
     }
 
     // Convert Entity to DTO
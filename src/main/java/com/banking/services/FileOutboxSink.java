@@ -0,0 +1,73 @@
+package com.banking.services;
+
+import com.banking.dto.OutboxEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends events to an NDJSON file, one object per line. Each batch is forced to disk before publish()
+// returns, so the relay only deletes rows that are durably in the file; a crash in between can repeat
+// lines, which readers drop by eventId
+@Component
+@ConditionalOnProperty(name = "banking.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banking.outbox.file.path:outbox/transaction-events.ndjson}")
+    private String path;
+
+    private FileChannel channel;
+
+    @PostConstruct
+    public void open() {
+        Path file = Path.of(path);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open outbox file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEventDTO> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+            for (OutboxEventDTO event : events) {
+                objectMapper.writeValue(lines, event);
+                lines.write('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to outbox file " + path, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
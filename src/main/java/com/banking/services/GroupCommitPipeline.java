@@ -0,0 +1,363 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Transaction;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.AccountRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Group commit for deposits and withdrawals (banking.group-commit.enabled=true). Callers queue their
+// mutation and wait; one coordinator thread gathers up to max-batch items, waiting at most max-delay-ms
+// after the first, and applies them in a single DB transaction, so a burst pays for one commit instead
+// of one per item. Refusals (missing account, insufficient funds) only fail their own item. If the batch
+// transaction itself fails, each item is retried in a transaction of its own.
+@Component
+@ConditionalOnProperty(name = "banking.group-commit.enabled", havingValue = "true")
+public class GroupCommitPipeline {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.group-commit.max-batch:100}")
+    private int maxBatch;
+
+    @Value("${banking.group-commit.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    @Value("${banking.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private static final Item STOP = new Item(null, Money.ZERO, null);
+
+    // Same guard and version bump as AccountRepository.applyBalanceDelta, in JDBC-batchable form
+    private static final String UPDATE_BALANCE = "UPDATE accounts SET balance = balance + ?, version = version + 1 "
+            + "WHERE account_id = ? AND balance + ? >= 0";
+    // An existing key fails the insert, and with it the transaction that would have applied the item again
+    private static final String INSERT_IDEMPOTENCY_KEY = "INSERT INTO idempotency_keys "
+            + "(idempotency_key, request_hash, transaction_id, created_at) VALUES (?, ?, ?, ?)";
+
+    @Value("${banking.group-commit.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private BlockingQueue<Item> queue;
+    private DistributionSummary batchSizes;
+    private Thread coordinator;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSizes = DistributionSummary.builder("banking.group_commit.batch_size")
+                .description("Deposits and withdrawals committed per group-commit transaction")
+                .register(meterRegistry);
+        running = true;
+        coordinator = new Thread(this::run, "group-commit");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    // Commit whatever is queued, then stop
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            queue.put(STOP);
+            coordinator.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Queue a validated deposit or withdrawal and wait for its batch to commit. On timeout the item is
+    // withdrawn if no batch has taken it yet; once a batch transaction holds it, its outcome is awaited
+    // instead, so a caller is never told "failed" about money that then moves.
+    public TransactionDTO execute(TransactionDTO request, Money amount, IdempotencyClaim claim) {
+        CompletableFuture<TransactionDTO> future = submit(request, amount, claim);
+        try {
+            try {
+                return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (future.cancel(false)) {
+                    throw new IllegalStateException("Group commit timed out; the transaction was not applied");
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (future.cancel(false)) {
+                throw new IllegalStateException("Interrupted while waiting for group commit; the transaction was not applied");
+            }
+            // Already in a batch transaction, which finishes on its own; report what it did
+            return future.join();
+        }
+    }
+
+    // Queue a validated deposit or withdrawal; the future completes when its batch commits. Cancelling
+    // the future succeeds only while the item is still queued, and a cancelled item is never applied.
+    // A claim's idempotency_keys row is inserted in the transaction that applies the item.
+    public CompletableFuture<TransactionDTO> submit(TransactionDTO request) {
+        return submit(request, Money.of(request.getAmount()), null);
+    }
+
+    public CompletableFuture<TransactionDTO> submit(TransactionDTO request, Money amount, IdempotencyClaim claim) {
+        Item item = new Item(request, amount, claim);
+        if (!running) {
+            throw new IllegalStateException("Group commit pipeline is stopped");
+        }
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing transaction", e);
+        }
+        return item.future;
+    }
+
+    private void run() {
+        List<Item> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                gather(batch);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Wait for a first item, then collect more until the batch is full or max-delay-ms has passed.
+    // STOP (queued by stop()) ends the batch early.
+    private void gather(List<Item> batch) throws InterruptedException {
+        Item first = queue.take();
+        if (first == STOP) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        while (batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            Item next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null || next == STOP) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Item> batch) {
+        // Claiming is what stops cancellation, so every item applied below has a caller still waiting
+        batch.removeIf(item -> !item.claim());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch));
+        } catch (RuntimeException e) {
+            // Something other than a refusal broke the shared transaction: isolate it by retrying alone
+            for (Item item : batch) {
+                item.reset();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(item)));
+                } catch (RuntimeException itemFailure) {
+                    item.failure = itemFailure;
+                }
+            }
+        }
+        for (Item item : batch) {
+            item.complete();
+        }
+    }
+
+    // Lock the batch's accounts in one statement, replay each account's items in arrival order against
+    // its locked balance, then move every balance by its net amount, refresh the summaries and insert the
+    // accepted rows, each as one JDBC batch
+    private void apply(List<Item> batch) {
+        Map<Integer, List<Item>> itemsByAccount = new TreeMap<>();
+        for (Item item : batch) {
+            itemsByAccount.computeIfAbsent(item.request.getAccountId(), id -> new ArrayList<>()).add(item);
+        }
+        Map<Integer, Long> balances = new HashMap<>();
+        for (Object[] row : accountRepository.findBalancesForUpdate(itemsByAccount.keySet())) {
+            balances.put((Integer) row[0], Money.of((BigDecimal) row[1]).cents());
+        }
+
+        List<Item> accepted = new ArrayList<>(batch.size());
+        List<Object[]> deltas = new ArrayList<>(itemsByAccount.size());
+        for (Map.Entry<Integer, List<Item>> entry : itemsByAccount.entrySet()) {
+            Integer accountId = entry.getKey();
+            Long lockedBalance = balances.get(accountId);
+            if (lockedBalance == null) {
+                for (Item item : entry.getValue()) {
+                    item.failure = new ResourceNotFoundException("Account not found with id: " + accountId);
+                }
+                continue;
+            }
+            // Replay in raw cents so the per-item loop allocates nothing
+            long balance = lockedBalance;
+            long delta = 0;
+            for (Item item : entry.getValue()) {
+                long next;
+                try {
+                    next = Money.addCents(balance, item.signedCents);
+                } catch (IllegalArgumentException e) {
+                    item.failure = e;
+                    continue;
+                }
+                if (next < 0) {
+                    bankingMetrics.insufficientFunds("withdrawal");
+                    item.failure = new IllegalArgumentException("Insufficient funds for withdrawal");
+                    continue;
+                }
+                balance = next;
+                delta += item.signedCents;
+                accepted.add(item);
+            }
+            if (delta != 0) {
+                BigDecimal change = Money.ofCents(delta).toBigDecimal();
+                deltas.add(new Object[]{change, accountId, change});
+            }
+        }
+        if (!deltas.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_BALANCE, deltas);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw new IllegalStateException("Balance changed concurrently for account " + deltas.get(i)[1]);
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Item item : accepted) {
+            Transaction transaction = new Transaction();
+            transaction.setAccount(entityManager.getReference(Account.class, item.request.getAccountId()));
+            transaction.setTransactionType(item.request.getTransactionType());
+            transaction.setAmount(item.request.getAmount());
+            transaction.setDescription(item.request.getDescription());
+            transaction.setTransactionDate(now);
+            entityManager.persist(transaction);
+            item.result = new TransactionDTO(transaction.getTransactionId(), item.request.getAccountId(),
+                    transaction.getTransactionType(), transaction.getAmount(), now, transaction.getDescription(), null);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<Object[]> keys = new ArrayList<>();
+        for (Item item : accepted) {
+            IdempotencyClaim claim = item.idempotencyClaim;
+            if (claim != null) {
+                keys.add(new Object[]{claim.key(), claim.requestHash(), item.result.getTransactionId(), now});
+            }
+        }
+        if (!keys.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IDEMPOTENCY_KEY, keys);
+        }
+        for (Item item : accepted) {
+            eventPublisher.publishEvent(new TransactionRecordedEvent(item.result.getTransactionId(),
+                    item.request.getAccountId(), item.result.getTransactionType(),
+                    item.result.getTransactionType() == TransactionType.DEPOSIT
+                            ? TransactionDirection.CREDIT : TransactionDirection.DEBIT,
+                    item.result.getAmount(), now));
+        }
+    }
+
+    private static final class Item {
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        final TransactionDTO request;
+        // Balance change in cents: positive for deposits, negative for withdrawals
+        final long signedCents;
+        final IdempotencyClaim idempotencyClaim;
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        final CompletableFuture<TransactionDTO> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return state.compareAndSet(QUEUED, CANCELLED) && super.cancel(mayInterruptIfRunning);
+            }
+        };
+        TransactionDTO result;
+        RuntimeException failure;
+
+        Item(TransactionDTO request, Money amount, IdempotencyClaim claim) {
+            this.request = request;
+            this.idempotencyClaim = claim;
+            this.signedCents = request != null && request.getTransactionType() == TransactionType.WITHDRAWAL
+                    ? -amount.cents() : amount.cents();
+        }
+
+        // Taken by the coordinator before the batch transaction; fails if the caller already cancelled
+        boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        void reset() {
+            result = null;
+            failure = null;
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.banking.services;
+
+// An Idempotency-Key travelling with its operation: whichever path applies the operation writes the
+// idempotency_keys row in the same commit, so the key is recorded exactly when the money moves
+public record IdempotencyClaim(String key, String requestHash) {}
@@ -0,0 +1,183 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDTO;
+import com.banking.entity.IdempotencyRecord;
+import com.banking.exception.IdempotencyConflictException;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Deduplicates deposits, withdrawals and transfers sent with an Idempotency-Key header.
+// Lookups go memory first: a bounded Caffeine cache of finished responses, then the requests still
+// running in this instance (a duplicate waits for the original instead of executing), and only then
+// the idempotency_keys table. A new key travels with its operation as an IdempotencyClaim, and its row
+// is written in the same commit that moves the money: a failed or interrupted operation leaves no key
+// behind, and an applied one can never be missing its key. Instances sharing the database collide on
+// the row's primary key, and the loser rolls back and replays the winner's response. Rows are purged
+// once they are older than the TTL.
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Completed> completed;
+    private final Duration ttl;
+
+    public IdempotencyStore(@Value("${banking.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${banking.idempotency.ttl-hours:24}") long ttlHours) {
+        this.ttl = Duration.ofHours(ttlHours);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public TransactionDTO execute(String key, String operation, TransactionDTO request,
+                                  Function<IdempotencyClaim, TransactionDTO> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = requestHash(operation, request);
+
+        Completed done = completed.getIfPresent(key);
+        if (done != null) {
+            checkSameRequest(done.requestHash(), requestHash, key);
+            bankingMetrics.idempotentReplay("memory");
+            return done.response();
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(running.requestHash(), requestHash, key);
+            bankingMetrics.idempotentReplay("in_flight");
+            return await(running.response());
+        }
+
+        try {
+            TransactionDTO response = resolve(key, requestHash, action);
+            completed.put(key, new Completed(requestHash, response));
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Deletes keys past the TTL; a client retrying later than that is treated as a new request
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private TransactionDTO resolve(String key, String requestHash, Function<IdempotencyClaim, TransactionDTO> action) {
+        Optional<TransactionDTO> stored = unflushedLedgerResponse(key, requestHash)
+                .or(() -> storedResponse(key, requestHash));
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try {
+            return action.apply(new IdempotencyClaim(key, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed the same key first, and our transaction rolled back
+            return storedResponse(key, requestHash).orElseThrow(() -> e);
+        }
+    }
+
+    // With the ledger on, an applied request's key reaches the table only when its record is flushed
+    private Optional<TransactionDTO> unflushedLedgerResponse(String key, String requestHash) {
+        if (ledgerEngine == null) {
+            return Optional.empty();
+        }
+        return ledgerEngine.unflushedRecord(key).map(record -> {
+            checkSameRequest(record.requestHash, requestHash, key);
+            bankingMetrics.idempotentReplay("ledger");
+            return LedgerEngine.toDTO(record);
+        });
+    }
+
+    private Optional<TransactionDTO> storedResponse(String key, String requestHash) {
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(key);
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        checkSameRequest(record.get().getRequestHash(), requestHash, key);
+        if (record.get().getTransactionId() == null) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+        }
+        bankingMetrics.idempotentReplay("database");
+        return Optional.of(transactionService.getTransactionById(record.get().getTransactionId()));
+    }
+
+    private static void checkSameRequest(String expected, String actual, String key) {
+        if (!expected.equals(actual)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    // Duplicates see the original's outcome, including its exception
+    private static TransactionDTO await(CompletableFuture<TransactionDTO> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String requestHash(String operation, TransactionDTO request) {
+        String canonical = String.join("|", operation,
+                String.valueOf(request.getAccountId()),
+                String.valueOf(request.getTargetAccountId()),
+                request.getAmount() == null ? "null" : request.getAmount().stripTrailingZeros().toPlainString(),
+                String.valueOf(request.getDescription()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<TransactionDTO> response) {}
+
+    private record Completed(String requestHash, TransactionDTO response) {}
+}
@@ -0,0 +1,81 @@
+package com.banking.services;
+
+import java.util.Arrays;
+
+// Open-addressing int -> long map (linear probing, no boxing). Not thread-safe: each ledger shard owns one.
+// Keys must not be Integer.MIN_VALUE, which marks empty slots.
+final class IntLongMap {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    IntLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    boolean containsKey(int key) {
+        return keys[slot(key)] != EMPTY;
+    }
+
+    // The value for key; only meaningful when containsKey(key)
+    long get(int key) {
+        return values[slot(key)];
+    }
+
+    void put(int key, long value) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                values[slot] = value;
+                grow();
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // The key's slot, or the empty slot where it would go
+    private int slot(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    // Account IDs are sequential; spread them so neighbours don't form probe chains
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
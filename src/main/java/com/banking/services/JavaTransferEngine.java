@@ -0,0 +1,94 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Transaction;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Default transfer engine (banking.transfer.engine=java). Runs in the caller's transaction: both account
+// rows are locked by one SELECT ... FOR UPDATE in ascending ID order, so two transfers over the same pair
+// always lock in the same order and can't deadlock, whichever direction they go.
+@Component
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "java", matchIfMissing = true)
+public class JavaTransferEngine implements TransferEngine {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Long transfer(Integer fromAccountId, Integer toAccountId, Money amount, String description) {
+        Map<Integer, Money> balances = new HashMap<>();
+        for (Object[] row : accountRepository.findBalancesForUpdate(List.of(fromAccountId, toAccountId))) {
+            balances.put((Integer) row[0], Money.of((BigDecimal) row[1]));
+        }
+        Money fromBalance = balances.get(fromAccountId);
+        if (fromBalance == null) {
+            throw new ResourceNotFoundException("From account not found with id: " + fromAccountId);
+        }
+        if (!balances.containsKey(toAccountId)) {
+            throw new ResourceNotFoundException("To account not found with id: " + toAccountId);
+        }
+        if (fromBalance.compareTo(amount) < 0) {
+            bankingMetrics.insufficientFunds("transfer");
+            bankingMetrics.transferFailed("java", "insufficient_funds");
+            throw new IllegalStateException("Insufficient funds for transfer");
+        }
+
+        // Rows are locked, so the guarded updates can only miss if the data changed underneath us
+        BigDecimal value = amount.toBigDecimal();
+        if (accountRepository.applyBalanceDelta(fromAccountId, value.negate()) == 0
+                || accountRepository.applyBalanceDelta(toAccountId, value) == 0) {
+            bankingMetrics.transferFailed("java", "error");
+            throw new IllegalStateException("Transfer failed: balance changed concurrently");
+        }
+
+        // Both legs go out in one JDBC batch: pooled IDs are assigned at persist, nothing runs until flush
+        LocalDateTime now = LocalDateTime.now();
+        Transaction debit = leg(fromAccountId, toAccountId, TransactionDirection.DEBIT, value, description, now);
+        Transaction credit = leg(toAccountId, fromAccountId, TransactionDirection.CREDIT, value, description, now);
+        entityManager.persist(debit);
+        entityManager.persist(credit);
+        entityManager.flush();
+        for (Transaction leg : List.of(debit, credit)) {
+            eventPublisher.publishEvent(new TransactionRecordedEvent(leg.getTransactionId(),
+                    leg.getAccount().getAccountId(), TransactionType.TRANSFER, leg.getDirection(), value, now));
+        }
+        return debit.getTransactionId();
+    }
+
+    private Transaction leg(Integer accountId, Integer otherAccountId, TransactionDirection direction,
+                            BigDecimal amount, String description, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(entityManager.getReference(Account.class, accountId));
+        transaction.setTargetAccount(entityManager.getReference(Account.class, otherAccountId));
+        transaction.setTransactionType(TransactionType.TRANSFER);
+        transaction.setDirection(direction);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
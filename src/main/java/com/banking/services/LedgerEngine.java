@@ -0,0 +1,354 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Optional in-memory ledger for deposits, withdrawals and transfers (banking.ledger.enabled=true).
+// Balances live in per-shard primitive maps, each shard applying its accounts' operations on one thread
+// and logging them to its own memory-mapped WAL before answering. A background flusher batches the
+// records into accounts/transactions; on startup each shard replays the WAL records past
+// its ledger_checkpoints row, so nothing acknowledged is lost in a crash. Idempotency keys ride in the
+// WAL records: until its record is flushed (which also writes the idempotency_keys row) a key is answered
+// from memory, so a retry after a crash replays the recovered record instead of applying it again.
+//
+// While enabled, the ledger owns balance changes: MySQL balances trail it by up to one flush interval,
+// and the writers that would bypass it (batch ingest, account balance edits and deletion, transfer_money)
+// refuse to run. Each flush writes every shard's records in one transaction; if it keeps failing, the
+// shards stop taking work instead of retrying forever.
+@Component
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    @Autowired
+    private LedgerStore ledgerStore;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Value("${banking.ledger.shards:4}")
+    private int shardCount;
+
+    @Value("${banking.ledger.wal-directory:ledger-wal}")
+    private String walDirectory;
+
+    @Value("${banking.ledger.wal-segment-bytes:67108864}")
+    private int walSegmentBytes;
+
+    @Value("${banking.ledger.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${banking.ledger.id-block-size:1000}")
+    private int idBlockSize;
+
+    @Value("${banking.ledger.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${banking.ledger.flush-max-attempts:10}")
+    private int flushMaxAttempts;
+
+    @Value("${banking.ledger.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final List<LedgerShard> shards = new ArrayList<>();
+    // Shard threads hold it shared while handing records to the flusher, which holds it exclusively while
+    // draining them, so one flush sees all shards' queues as of a single instant
+    private final ReadWriteLock handOff = new ReentrantReadWriteLock();
+    private Map<Integer, List<LedgerRecord>> failedFlush;
+    private int flushAttempts;
+    // Durable records carrying an idempotency key, until their flush commits
+    private final ConcurrentMap<String, LedgerRecord> unflushedKeys = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public synchronized void start() {
+        shards.clear();
+        failedFlush = null;
+        flushAttempts = 0;
+        unflushedKeys.clear();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new LedgerShard(i, new LedgerWal(Path.of(walDirectory), i, walSegmentBytes),
+                    ledgerStore, queueCapacity, idBlockSize, handOff.readLock()));
+        }
+        // Recovery runs before any shard thread starts, so replay can touch every shard's balances
+        long[] lastSequences = new long[shardCount];
+        for (LedgerShard shard : shards) {
+            lastSequences[shard.index] = shard.wal.replay(ledgerStore.flushedSequence(shard.index), record -> {
+                shardOf(record.accountId).adjust(record.accountId, record.accountDelta());
+                if (record.type == TransactionType.TRANSFER) {
+                    shardOf(record.targetAccountId).adjust(record.targetAccountId, record.amountCents);
+                }
+                shard.unflushed.add(record);
+                trackKey(record);
+            });
+        }
+        for (LedgerShard shard : shards) {
+            shard.start(lastSequences[shard.index]);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Drain the shards, flush everything they logged and close the WALs
+    @PreDestroy
+    public synchronized void stop() {
+        halt();
+        flush();
+    }
+
+    public TransactionDTO deposit(TransactionDTO request, IdempotencyClaim claim) {
+        int accountId = request.getAccountId();
+        long amount = toCents(request.getAmount());
+        String description = request.getDescription();
+        return await(shardOf(accountId).submit(shard -> {
+            Money.addCents(shard.balance(accountId), amount);
+            LedgerRecord record = new LedgerRecord(shard.nextSequence(), TransactionType.DEPOSIT,
+                    shard.nextTransactionId(), 0, accountId, 0, amount, System.currentTimeMillis(), description, claim);
+            log(shard, record);
+            shard.adjust(accountId, amount);
+            return toDTO(record);
+        }));
+    }
+
+    public TransactionDTO withdraw(TransactionDTO request, IdempotencyClaim claim) {
+        int accountId = request.getAccountId();
+        long amount = toCents(request.getAmount());
+        String description = request.getDescription();
+        return await(shardOf(accountId).submit(shard -> {
+            if (shard.balance(accountId) < amount) {
+                bankingMetrics.insufficientFunds("withdrawal");
+                throw new IllegalArgumentException("Insufficient funds for withdrawal");
+            }
+            LedgerRecord record = new LedgerRecord(shard.nextSequence(), TransactionType.WITHDRAWAL,
+                    shard.nextTransactionId(), 0, accountId, 0, amount, System.currentTimeMillis(), description, claim);
+            log(shard, record);
+            shard.adjust(accountId, -amount);
+            return toDTO(record);
+        }));
+    }
+
+    // The debit, both ledger rows and the WAL record belong to the source shard; the credit is applied
+    // on the target's shard once the record is durable (and again by replay after a crash)
+    public TransactionDTO transfer(TransactionDTO request, IdempotencyClaim claim) {
+        int fromAccountId = request.getAccountId();
+        int toAccountId = request.getTargetAccountId();
+        long amount = toCents(request.getAmount());
+        String description = request.getDescription() != null ? request.getDescription()
+                : "Transfer to account " + toAccountId;
+        LedgerShard target = shardOf(toAccountId);
+        // Load the target before any credit for it can be flushed, so its loaded balance can't already
+        // include one, and check the credit fits before anything is logged
+        await(target.submit(shard -> Money.addCents(shard.balance(toAccountId), amount)));
+
+        return await(shardOf(fromAccountId).submit(shard -> {
+            if (shard.balance(fromAccountId) < amount) {
+                bankingMetrics.insufficientFunds("transfer");
+                bankingMetrics.transferFailed("ledger", "insufficient_funds");
+                throw new IllegalStateException("Insufficient funds for transfer");
+            }
+            if (target == shard) {
+                Money.addCents(shard.balance(toAccountId), amount);
+            }
+            LedgerRecord record = new LedgerRecord(shard.nextSequence(), TransactionType.TRANSFER,
+                    shard.nextTransactionId(), shard.nextTransactionId(), fromAccountId, toAccountId, amount,
+                    System.currentTimeMillis(), description, claim);
+            log(shard, record);
+            shard.adjust(fromAccountId, -amount);
+            if (target == shard) {
+                shard.adjust(toAccountId, amount);
+            } else {
+                shard.afterForce(() -> target.submitInternal(credited -> {
+                    try {
+                        credited.adjust(toAccountId, amount);
+                    } catch (IllegalArgumentException e) {
+                        // Concurrent credits took the target past the range after its check; the record is
+                        // durable but cannot be applied, so the target shard stops like an unflushable one
+                        credited.stall(e);
+                        log.error("Ledger shard {} cannot apply the credit of transfer {}", target.index,
+                                record.transactionId, e);
+                    }
+                    return null;
+                }));
+            }
+            return toDTO(record);
+        }));
+    }
+
+    // Write the shards' durable records to MySQL, then drop the WAL segments that are fully flushed.
+    // A transfer's record flushes with its source shard, yet its target may already have spent the credit
+    // in records of its own, so all shards are drained at one instant and written in one transaction: a
+    // per-shard flush could apply that debit before the credit and fail the balance check on every retry.
+    // A flush that fails flush-max-attempts times in a row stalls every shard: the WALs keep the records,
+    // the shards refuse new work, and a restart (after fixing the cause) replays and retries them.
+    public synchronized void flush() {
+        if (flushAttempts >= flushMaxAttempts) {
+            return;
+        }
+        Map<Integer, List<LedgerRecord>> batches = failedFlush;
+        if (batches == null) {
+            batches = new TreeMap<>();
+            handOff.writeLock().lock();
+            try {
+                for (LedgerShard shard : shards) {
+                    List<LedgerRecord> batch = new ArrayList<>();
+                    for (LedgerRecord record = shard.unflushed.poll(); record != null; record = shard.unflushed.poll()) {
+                        batch.add(record);
+                    }
+                    if (!batch.isEmpty()) {
+                        batches.put(shard.index, batch);
+                    }
+                }
+            } finally {
+                handOff.writeLock().unlock();
+            }
+        }
+        if (batches.isEmpty()) {
+            return;
+        }
+        try {
+            ledgerStore.flush(batches);
+        } catch (RuntimeException e) {
+            // Keep the batches and retry them first next time; the WALs still hold them if we go down
+            failedFlush = batches;
+            flushAttempts++;
+            if (flushAttempts < flushMaxAttempts) {
+                bankingMetrics.ledgerFlushFailed("retrying");
+                log.warn("Ledger flush failed, will retry", e);
+            } else {
+                bankingMetrics.ledgerFlushFailed("stalled");
+                for (LedgerShard shard : shards) {
+                    shard.stall(e);
+                }
+                log.error("Ledger flush failed {} times in a row; the ledger refuses new work until the cause "
+                        + "is fixed and the application restarted", flushAttempts, e);
+            }
+            return;
+        }
+        failedFlush = null;
+        flushAttempts = 0;
+        for (Map.Entry<Integer, List<LedgerRecord>> batch : batches.entrySet()) {
+            for (LedgerRecord record : batch.getValue()) {
+                if (record.idempotencyKey != null) {
+                    unflushedKeys.remove(record.idempotencyKey, record);
+                }
+            }
+            long flushedThrough = batch.getValue().get(batch.getValue().size() - 1).sequence;
+            shards.get(batch.getKey()).submitInternal(owner -> {
+                owner.wal.truncate(flushedThrough);
+                return null;
+            });
+        }
+    }
+
+    // Stop the flusher and the shard threads without flushing, as if the process died after the last
+    // WAL force; start() then recovers from the WAL
+    synchronized void halt() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (LedgerShard shard : shards) {
+            shard.stop();
+        }
+        for (LedgerShard shard : shards) {
+            shard.wal.close();
+        }
+    }
+
+    // The record applied under an idempotency key that is not in idempotency_keys yet. Callers look here
+    // before the table: a flush writes the row before the key leaves this map.
+    Optional<LedgerRecord> unflushedRecord(String idempotencyKey) {
+        return Optional.ofNullable(unflushedKeys.get(idempotencyKey));
+    }
+
+    // Append the record; its key becomes visible once the record is durable, before the caller hears back.
+    // Operations log before they adjust balances, so a record the WAL refuses leaves memory untouched.
+    private void log(LedgerShard shard, LedgerRecord record) {
+        shard.log(record);
+        if (record.idempotencyKey != null) {
+            shard.afterForce(() -> trackKey(record));
+        }
+    }
+
+    private void trackKey(LedgerRecord record) {
+        if (record.idempotencyKey != null) {
+            unflushedKeys.put(record.idempotencyKey, record);
+        }
+    }
+
+    private LedgerShard shardOf(int accountId) {
+        return shards.get(Math.floorMod(accountId, shards.size()));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return Money.of(amount).cents();
+    }
+
+    static TransactionDTO toDTO(LedgerRecord record) {
+        return new TransactionDTO(record.transactionId, record.accountId, record.type,
+                Money.ofCents(record.amountCents).toBigDecimal(), LedgerStore.toDateTime(record.timestampMillis),
+                record.description, record.type == TransactionType.TRANSFER ? record.targetAccountId : null);
+    }
+
+    // On timeout the command is withdrawn if its shard has not started it; once started, its outcome is
+    // awaited instead, so a caller is never told "failed" about money that then moves
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            try {
+                return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (future.cancel(false)) {
+                    throw new IllegalStateException("Ledger operation timed out; it was not applied");
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Ledger operation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (future.cancel(false)) {
+                throw new IllegalStateException("Interrupted while waiting for the ledger; the operation was not applied");
+            }
+            // Already running on its shard, which finishes it on its own; report what it did
+            return future.join();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionType;
+
+// One accepted ledger mutation, as written to the WAL and later flushed to MySQL. Amounts are in cents.
+// A transfer carries both legs: transactionId is the debit row, creditTransactionId the credit row.
+// Requests sent with an Idempotency-Key carry it (and their request hash), so the key is as durable as
+// the operation and is written to idempotency_keys by the same flush.
+final class LedgerRecord {
+
+    final long sequence;
+    final TransactionType type;
+    final long transactionId;
+    final long creditTransactionId;
+    final int accountId;
+    final int targetAccountId;
+    final long amountCents;
+    final long timestampMillis;
+    final String description;
+    final String idempotencyKey;
+    final String requestHash;
+
+    LedgerRecord(long sequence, TransactionType type, long transactionId, long creditTransactionId,
+                 int accountId, int targetAccountId, long amountCents, long timestampMillis, String description,
+                 IdempotencyClaim claim) {
+        this(sequence, type, transactionId, creditTransactionId, accountId, targetAccountId, amountCents,
+                timestampMillis, description, claim == null ? null : claim.key(),
+                claim == null ? null : claim.requestHash());
+    }
+
+    LedgerRecord(long sequence, TransactionType type, long transactionId, long creditTransactionId,
+                 int accountId, int targetAccountId, long amountCents, long timestampMillis, String description,
+                 String idempotencyKey, String requestHash) {
+        this.sequence = sequence;
+        this.type = type;
+        this.transactionId = transactionId;
+        this.creditTransactionId = creditTransactionId;
+        this.accountId = accountId;
+        this.targetAccountId = targetAccountId;
+        this.amountCents = amountCents;
+        this.timestampMillis = timestampMillis;
+        this.description = description;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+    }
+
+    // The balance change this record makes to accountId
+    long accountDelta() {
+        return type == TransactionType.DEPOSIT ? amountCents : -amountCents;
+    }
+}
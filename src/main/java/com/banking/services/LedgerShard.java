@@ -0,0 +1,239 @@
+package com.banking.services;
+
+import com.banking.exception.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+// One partition of the in-memory ledger. A single thread owns the balances and the WAL: it takes a batch
+// of commands off the queue, applies them, forces the WAL once for the whole batch, and only then answers
+// the callers and hands the new records to the flusher.
+final class LedgerShard {
+
+    private static final int MAX_BATCH = 1024;
+    private static final Command<Void> WAKE = new Command<>(shard -> null);
+    private static final Command<Void> STOP = new Command<>(shard -> null);
+
+    final int index;
+    final LedgerWal wal;
+    // Records durable in the WAL but not yet flushed to MySQL, in sequence order
+    final ConcurrentLinkedQueue<LedgerRecord> unflushed = new ConcurrentLinkedQueue<>();
+
+    private final LedgerStore store;
+    private final IntLongMap balances = new IntLongMap(1 << 16);
+    private final BlockingQueue<Command<?>> commands;
+    // Work queued by other shards (transfer credits); unbounded so shards never block on each other
+    private final ConcurrentLinkedQueue<Command<?>> internal = new ConcurrentLinkedQueue<>();
+    private final int idBlockSize;
+    private final List<Runnable> afterForce = new ArrayList<>();
+    // Shared with every shard and held exclusively by the flusher while it drains the unflushed queues
+    private final Lock handOff;
+
+    private Thread thread;
+    private volatile boolean running;
+    // Set once this shard's logged records cannot reach MySQL (or be applied); new work is refused until
+    // a restart
+    private volatile RuntimeException stalledBy;
+    private long nextSequence;
+    private long nextTransactionId;
+    private long transactionIdLimit;
+
+    LedgerShard(int index, LedgerWal wal, LedgerStore store, int queueCapacity, int idBlockSize, Lock handOff) {
+        this.index = index;
+        this.wal = wal;
+        this.store = store;
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        this.idBlockSize = idBlockSize;
+        this.handOff = handOff;
+    }
+
+    // Queue work for the shard thread; blocks while the queue is full. Cancelling the future succeeds only
+    // while the command is still queued, and a cancelled command is skipped.
+    <T> CompletableFuture<T> submit(Function<LedgerShard, T> work) {
+        RuntimeException failure = stalledBy;
+        if (failure != null) {
+            throw new IllegalStateException("Ledger shard " + index + " is stalled: " + failure.getMessage(), failure);
+        }
+        Command<T> command = new Command<>(work);
+        try {
+            commands.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing ledger operation", e);
+        }
+        if (!running) {
+            command.future.completeExceptionally(new IllegalStateException("Ledger is not running"));
+        }
+        return command.future;
+    }
+
+    // Queue work from another shard thread without blocking
+    void submitInternal(Function<LedgerShard, ?> work) {
+        internal.add(new Command<>(work));
+        commands.offer(WAKE);
+    }
+
+    // Stop taking work: its records cannot reach MySQL, so more of them would only widen the gap
+    void stall(RuntimeException failure) {
+        stalledBy = failure;
+    }
+
+    boolean stalled() {
+        return stalledBy != null;
+    }
+
+    void start(long lastSequence) {
+        nextSequence = lastSequence + 1;
+        running = true;
+        thread = new Thread(this::run, "ledger-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Finish what is already queued, then stop the thread
+    void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                commands.put(STOP);
+                thread.join();
+                thread = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // --- Everything below runs on the shard thread (or before start(), during recovery) ---
+
+    // The account's balance in cents, loading it from MySQL the first time the shard sees it
+    long balance(int accountId) {
+        if (!balances.containsKey(accountId)) {
+            OptionalLong loaded = store.loadBalanceCents(accountId);
+            if (loaded.isEmpty()) {
+                throw new ResourceNotFoundException("Account not found with id: " + accountId);
+            }
+            balances.put(accountId, loaded.getAsLong());
+        }
+        return balances.get(accountId);
+    }
+
+    // Range-checked like every other balance change; operations check first, so this only fails for a
+    // transfer credit that raced past its target's check
+    void adjust(int accountId, long deltaCents) {
+        balances.put(accountId, Money.addCents(balance(accountId), deltaCents));
+    }
+
+    long nextSequence() {
+        return nextSequence++;
+    }
+
+    long nextTransactionId() {
+        if (nextTransactionId == transactionIdLimit) {
+            nextTransactionId = store.reserveTransactionIds(idBlockSize);
+            transactionIdLimit = nextTransactionId + idBlockSize;
+        }
+        return nextTransactionId++;
+    }
+
+    // Append to the WAL; the record is handed to the flusher once the batch is forced
+    void log(LedgerRecord record) {
+        wal.append(record);
+        afterForce.add(() -> unflushed.add(record));
+    }
+
+    // Run once the current batch is durable (e.g. crediting a transfer's target on another shard)
+    void afterForce(Runnable action) {
+        afterForce.add(action);
+    }
+
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(commands.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            commands.drainTo(batch, MAX_BATCH - 1);
+            for (Command<?> command = internal.poll(); command != null; command = internal.poll()) {
+                batch.add(command);
+            }
+            for (Command<?> command : batch) {
+                if (command == STOP) {
+                    stopping = true;
+                } else if (command.start()) {
+                    command.apply(this);
+                }
+            }
+            wal.force();
+            // A record reaches the flusher before the credit it carries reaches its target shard, and the
+            // flusher drains every shard at once, so it never takes a debit without the credit it spends
+            handOff.lock();
+            try {
+                for (Runnable action : afterForce) {
+                    action.run();
+                }
+            } finally {
+                handOff.unlock();
+            }
+            afterForce.clear();
+            // A skipped command's future is already cancelled, so completing it is a no-op
+            for (Command<?> command : batch) {
+                command.complete();
+            }
+            batch.clear();
+        }
+    }
+
+    private static final class Command<T> {
+        private static final int QUEUED = 0;
+        private static final int STARTED = 1;
+        private static final int CANCELLED = 2;
+
+        final Function<LedgerShard, T> work;
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        final CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return state.compareAndSet(QUEUED, CANCELLED) && super.cancel(mayInterruptIfRunning);
+            }
+        };
+        T result;
+        RuntimeException failure;
+
+        Command(Function<LedgerShard, T> work) {
+            this.work = work;
+        }
+
+        // Taken by the shard thread before applying; fails if the caller already cancelled
+        boolean start() {
+            return state.compareAndSet(QUEUED, STARTED);
+        }
+
+        void apply(LedgerShard shard) {
+            try {
+                result = work.apply(shard);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.LedgerCheckpoint;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.banking.repository.LedgerCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+// MySQL side of the ledger engine: loads balances, reserves transaction IDs and writes flushed records
+@Component
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerStore {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (transaction_id, account_id, "
+            + "transaction_type, direction, amount, transaction_date, description, target_account_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IDEMPOTENCY_KEY = "INSERT INTO idempotency_keys "
+            + "(idempotency_key, request_hash, transaction_id, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    // Ledger rows per JDBC batch; a flush after a long outage carries every record the WALs replayed
+    @Value("${banking.ledger.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    // The account's flushed balance in cents, or empty if there is no such account
+    public OptionalLong loadBalanceCents(int accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM accounts WHERE account_id = ?", BigDecimal.class, accountId);
+        if (balances.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        BigDecimal balance = balances.get(0);
+        return OptionalLong.of(balance == null ? 0 : Money.of(balance).cents());
+    }
+
+    // Reserve count transaction IDs from the id_generators row shared with Hibernate and transfer_money;
+    // returns the first one. A missing row is seeded past the existing rows, as PooledTableIdGenerator does
+    public long reserveTransactionIds(int count) {
+        return transactionTemplate.execute(status -> {
+            List<Long> next = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_generators WHERE sequence_name = 'transactions' FOR UPDATE", Long.class);
+            if (next.isEmpty()) {
+                long first = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(MAX(transaction_id), 0) + 1 FROM transactions", Long.class);
+                jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES ('transactions', ?)",
+                        first + count);
+                return first;
+            }
+            jdbcTemplate.update("UPDATE id_generators SET next_val = next_val + ? WHERE sequence_name = 'transactions'",
+                    count);
+            return next.get(0);
+        });
+    }
+
+    public long flushedSequence(int shard) {
+        return ledgerCheckpointRepository.findById(shard).map(LedgerCheckpoint::getFlushedSequence).orElse(0L);
+    }
+
+    // Write the shards' records (each in sequence order) and advance their checkpoints in one transaction:
+    // ledger rows in JDBC batches, then one balance update per touched account, then the idempotency keys
+    // the records carry. The batches are drained at one instant, so every credit a debit spends is among
+    // them and each account's net change keeps it within the range the ledger already checked.
+    public void flush(Map<Integer, List<LedgerRecord>> batches) {
+        List<Object[]> rows = new ArrayList<>();
+        Map<String, Object[]> keys = new HashMap<>();
+        Map<Integer, Long> deltas = new TreeMap<>();
+        for (List<LedgerRecord> records : batches.values()) {
+            for (LedgerRecord record : records) {
+                Timestamp date = Timestamp.valueOf(toDateTime(record.timestampMillis));
+                BigDecimal amount = Money.ofCents(record.amountCents).toBigDecimal();
+                if (record.type == TransactionType.TRANSFER) {
+                    rows.add(new Object[]{record.transactionId, record.accountId, record.type.name(),
+                            TransactionDirection.DEBIT.name(), amount, date, record.description, record.targetAccountId});
+                    rows.add(new Object[]{record.creditTransactionId, record.targetAccountId, record.type.name(),
+                            TransactionDirection.CREDIT.name(), amount, date, record.description, record.accountId});
+                    deltas.merge(record.targetAccountId, record.amountCents, Long::sum);
+                } else {
+                    TransactionDirection direction = record.type == TransactionType.DEPOSIT
+                            ? TransactionDirection.CREDIT : TransactionDirection.DEBIT;
+                    rows.add(new Object[]{record.transactionId, record.accountId, record.type.name(), direction.name(),
+                            amount, date, record.description, null});
+                }
+                deltas.merge(record.accountId, record.accountDelta(), Long::sum);
+                if (record.idempotencyKey != null) {
+                    keys.put(record.idempotencyKey, new Object[]{record.idempotencyKey, record.requestHash,
+                            record.transactionId, date});
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < rows.size(); from += flushBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows.subList(from, Math.min(rows.size(), from + flushBatchSize)));
+            }
+            // Ascending account order, so concurrent writers lock rows in the same order
+            for (Map.Entry<Integer, Long> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0
+                        && accountRepository.applyBalanceDelta(delta.getKey(), Money.ofCents(delta.getValue()).toBigDecimal()) == 0) {
+                    throw new IllegalStateException("Ledger flush could not apply balance change to account "
+                            + delta.getKey());
+                }
+            }
+            // A key already in the table must not fail a flush that could then never succeed
+            idempotencyRecordRepository.findAllById(keys.keySet())
+                    .forEach(existing -> keys.remove(existing.getIdempotencyKey()));
+            if (!keys.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_IDEMPOTENCY_KEY, new ArrayList<>(keys.values()));
+            }
+            batches.forEach((shard, records) ->
+                    ledgerCheckpointRepository.save(new LedgerCheckpoint(shard, records.get(records.size() - 1).sequence)));
+            for (Object[] row : rows) {
+                eventPublisher.publishEvent(new TransactionRecordedEvent((Long) row[0], (Integer) row[1],
+                        TransactionType.valueOf((String) row[2]), TransactionDirection.valueOf((String) row[3]),
+                        (BigDecimal) row[4], ((Timestamp) row[5]).toLocalDateTime()));
+            }
+        });
+    }
+
+    static LocalDateTime toDateTime(long timestampMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,218 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Write-ahead log for one ledger shard: a series of preallocated, memory-mapped segment files named
+// shard-<shard>-<first sequence>.wal. Records are appended by the shard thread and made durable by
+// force() before their callers are answered. A zero length or a bad checksum marks the end of a segment,
+// so a torn tail write is dropped on replay.
+//
+// Record layout: int length | byte type | long sequence | long transactionId | long creditTransactionId |
+// int accountId | int targetAccountId | long amountCents | long timestampMillis | short descriptionLength |
+// description (UTF-8) | short keyLength | idempotency key (UTF-8) | short hashLength | request hash (ASCII) |
+// int crc32c (of everything between length and crc)
+final class LedgerWal implements AutoCloseable {
+
+    private static final int FIXED_BYTES = 4 + 1 + 8 + 8 + 8 + 4 + 4 + 8 + 8 + 2 + 2 + 2 + 4;
+    private static final int MAX_DESCRIPTION_BYTES = 1024;
+    // An Idempotency-Key is at most 100 characters and the request hash 64 hex digits
+    private static final int MAX_IDEMPOTENCY_BYTES = 400 + 64;
+    private static final int MAX_LENGTH = FIXED_BYTES + MAX_DESCRIPTION_BYTES + MAX_IDEMPOTENCY_BYTES;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int shard;
+    private final int segmentBytes;
+    private final Pattern segmentName;
+    private final List<Segment> segments = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+
+    private MappedByteBuffer active;
+
+    LedgerWal(Path directory, int shard, int segmentBytes) {
+        this.directory = directory;
+        this.shard = shard;
+        this.segmentBytes = segmentBytes;
+        this.segmentName = Pattern.compile("shard-" + shard + "-(\\d+)\\.wal");
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> {
+                    Matcher matcher = segmentName.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        segments.add(new Segment(file, Long.parseLong(matcher.group(1))));
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open ledger WAL in " + directory, e);
+        }
+        segments.sort((a, b) -> Long.compare(a.firstSequence, b.firstSequence));
+    }
+
+    // Feed every intact record after the given sequence to the consumer, oldest first; returns the last
+    // sequence seen (or afterSequence when there is nothing newer)
+    long replay(long afterSequence, Consumer<LedgerRecord> consumer) {
+        long last = afterSequence;
+        for (Segment segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                LedgerRecord record;
+                while ((record = read(buffer)) != null) {
+                    if (record.sequence > afterSequence) {
+                        consumer.accept(record);
+                        last = Math.max(last, record.sequence);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read ledger WAL segment " + segment.file, e);
+            }
+        }
+        return last;
+    }
+
+    void append(LedgerRecord record) {
+        byte[] description = bytes(record.description);
+        if (description.length > MAX_DESCRIPTION_BYTES) {
+            throw new IllegalArgumentException("Description is too long");
+        }
+        byte[] key = bytes(record.idempotencyKey);
+        byte[] hash = bytes(record.requestHash);
+        int length = FIXED_BYTES + description.length + key.length + hash.length;
+        if (active == null || active.remaining() < length + 4) {
+            roll(record.sequence);
+        }
+        int start = active.position();
+        active.putInt(length)
+                .put((byte) record.type.ordinal())
+                .putLong(record.sequence)
+                .putLong(record.transactionId)
+                .putLong(record.creditTransactionId)
+                .putInt(record.accountId)
+                .putInt(record.targetAccountId)
+                .putLong(record.amountCents)
+                .putLong(record.timestampMillis)
+                .putShort((short) description.length)
+                .put(description)
+                .putShort((short) key.length)
+                .put(key)
+                .putShort((short) hash.length)
+                .put(hash);
+        crc.reset();
+        crc.update(active.slice(start + 4, length - 8));
+        active.putInt((int) crc.getValue());
+    }
+
+    // Flush appended records to the device
+    void force() {
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    // Delete segments whose records are all at or below the sequence already flushed to MySQL.
+    // A segment's records end where the next segment's begin; the active segment is always kept.
+    void truncate(long flushedThrough) {
+        while (segments.size() > 1 && segments.get(1).firstSequence <= flushedThrough + 1) {
+            Segment obsolete = segments.remove(0);
+            try {
+                Files.deleteIfExists(obsolete.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete ledger WAL segment " + obsolete.file, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        active = null;
+    }
+
+    // Start a new preallocated segment whose first record is firstSequence. A file of that name can only
+    // be left by a crash before any record in it became intact (a zero-filled or torn segment): replay would
+    // otherwise have moved the sequence past it. It is emptied and reused instead of failing every roll.
+    private void roll(long firstSequence) {
+        force();
+        Path file = directory.resolve("shard-" + shard + "-" + firstSequence + ".wal");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ledger WAL segment " + file, e);
+        }
+        segments.removeIf(segment -> segment.firstSequence == firstSequence);
+        segments.add(new Segment(file, firstSequence));
+    }
+
+    // The next intact record, or null at the end of the written part of the segment
+    private LedgerRecord read(ByteBuffer buffer) {
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length < FIXED_BYTES || length > MAX_LENGTH || length > buffer.remaining()) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.slice(start + 4, length - 8));
+        if ((int) crc.getValue() != buffer.getInt(start + length - 4)) {
+            return null;
+        }
+        buffer.position(start + 4);
+        int typeOrdinal = buffer.get();
+        long sequence = buffer.getLong();
+        long transactionId = buffer.getLong();
+        long creditTransactionId = buffer.getLong();
+        int accountId = buffer.getInt();
+        int targetAccountId = buffer.getInt();
+        long amountCents = buffer.getLong();
+        long timestampMillis = buffer.getLong();
+        String description = string(buffer);
+        String key = string(buffer);
+        String hash = string(buffer);
+        buffer.position(start + length);
+        return new LedgerRecord(sequence, TYPES[typeOrdinal], transactionId, creditTransactionId, accountId,
+                targetAccountId, amountCents, timestampMillis, description, key, hash);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // A length-prefixed string; empty reads back as null
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long firstSequence;
+
+        Segment(Path file, long firstSequence) {
+            this.file = file;
+            this.firstSequence = firstSequence;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.banking.services;
+
+import com.banking.dto.OutboxEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// In-process stand-in for a partitioned message broker: events are keyed by account into bounded
+// partitions, so one account's events stay in order within a partition and consumers poll partitions
+// independently. A batch that does not fit is refused whole, which leaves it in the outbox until
+// consumers catch up
+@Component
+@ConditionalOnProperty(name = "banking.outbox.sink", havingValue = "broker")
+public class LocalBrokerOutboxSink implements OutboxSink {
+
+    private final List<BlockingQueue<OutboxEventDTO>> partitions;
+
+    public LocalBrokerOutboxSink(@Value("${banking.outbox.broker.partitions:8}") int partitionCount,
+                                 @Value("${banking.outbox.broker.partition-capacity:10000}") int capacity) {
+        partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayBlockingQueue<>(capacity));
+        }
+    }
+
+    // The relay is the only producer, so capacity checked up front cannot be taken before the offers
+    @Override
+    public synchronized void publish(List<OutboxEventDTO> events) {
+        int[] needed = new int[partitions.size()];
+        for (OutboxEventDTO event : events) {
+            needed[partitionOf(event.getAccountId())]++;
+        }
+        for (int i = 0; i < needed.length; i++) {
+            if (needed[i] > partitions.get(i).remainingCapacity()) {
+                throw new IllegalStateException("Outbox broker partition " + i + " is full");
+            }
+        }
+        for (OutboxEventDTO event : events) {
+            partitions.get(partitionOf(event.getAccountId())).add(event);
+        }
+    }
+
+    // Take up to max events from one partition, oldest first
+    public List<OutboxEventDTO> poll(int partition, int max) {
+        List<OutboxEventDTO> events = new ArrayList<>(Math.min(max, 1024));
+        partitions.get(partition).drainTo(events, max);
+        return events;
+    }
+
+    public int partitionOf(int accountId) {
+        return Math.floorMod(accountId, partitions.size());
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.services;
+
+import java.math.BigDecimal;
+
+// Exact amount in cents. Balances and amounts are DECIMAL(15,2) columns, so every storable value fits a
+// long; arithmetic outside that range is refused instead of wrapping. BigDecimal appears only at the
+// edges: request/response DTOs and the values bound into SQL.
+public final class Money implements Comparable<Money> {
+
+    // Largest magnitude a DECIMAL(15,2) column holds: 9,999,999,999,999.99
+    public static final long MAX_CENTS = 999_999_999_999_999L;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return new Money(checked(cents));
+    }
+
+    // Fractions of a cent are rejected rather than rounded
+    public static Money of(BigDecimal amount) {
+        long cents;
+        try {
+            cents = amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most two decimal places");
+        }
+        return ofCents(cents);
+    }
+
+    // The checks of(amount) makes, without building a Money, for paths that bind the BigDecimal straight
+    // into SQL. Two decimals and at most 13 integer digits always fit; anything else takes the full check.
+    public static void checkAmount(BigDecimal amount) {
+        if (amount.scale() > 2 || amount.precision() - amount.scale() > 13) {
+            of(amount);
+        }
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return new Money(addCents(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(addCents(cents, -other.cents));
+    }
+
+    // Range-checked sum for loops that keep balances as raw cents to stay allocation-free. Both operands
+    // are within MAX_CENTS, so the long sum cannot wrap; only the range check can fail.
+    public static long addCents(long cents, long otherCents) {
+        return checked(cents + otherCents);
+    }
+
+    public Money negate() {
+        return new Money(-cents);
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private static long checked(long cents) {
+        if (cents > MAX_CENTS || cents < -MAX_CENTS) {
+            throw new IllegalArgumentException("Amount exceeds the supported range of 9999999999999.99");
+        }
+        return cents;
+    }
+}
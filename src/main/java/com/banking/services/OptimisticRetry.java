@@ -0,0 +1,75 @@
+package com.banking.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Re-runs a unit of work that lost an optimistic version check, backing off with full jitter
+// between attempts. Conflicts and exhausted retries are counted per operation.
+@Component
+public class OptimisticRetry {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${banking.retry.initial-backoff-ms:5}")
+    private long initialBackoffMs;
+
+    @Value("${banking.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    // The action must open and commit its own transaction so each attempt starts from fresh state
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflictCounter(operation).increment();
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter(operation).increment();
+                    throw new IllegalStateException("Concurrent update conflict on " + operation
+                            + " after " + attempt + " attempts, please retry");
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Sleep a random time in [0, min(max, initial * 2^(attempt - 1))]
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after a concurrent update conflict");
+        }
+    }
+
+    private Counter conflictCounter(String operation) {
+        return Counter.builder("banking.optimistic_lock.conflicts")
+                .description("Optimistic version conflicts, including ones resolved by retrying")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private Counter exhaustedCounter(String operation) {
+        return Counter.builder("banking.optimistic_lock.retries_exhausted")
+                .description("Operations that still conflicted after the last retry")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
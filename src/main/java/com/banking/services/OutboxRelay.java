@@ -0,0 +1,105 @@
+package com.banking.services;
+
+import com.banking.dto.OutboxEventDTO;
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Moves committed outbox_events rows to the configured OutboxSink. Each batch is locked, published and
+// deleted in one DB transaction: a sink failure rolls the batch back for the next poll, and a crash after
+// publishing but before commit publishes it again, so delivery is at-least-once. The locking read also
+// keeps relays on several instances from interleaving batches, which preserves per-account order.
+//
+// The relay runs at READ COMMITTED. Under MySQL's default REPEATABLE READ, the ordered FOR UPDATE scan
+// takes next-key locks, including the gap after the last row, and every writer inserting a new event
+// would wait for the relay's sink call. At READ COMMITTED, InnoDB locks only the rows it returns, so
+// writers append while a batch is out. A relay blocked behind another instance's batch re-reads once
+// that batch commits, and skips the rows it deleted.
+@Component
+@ConditionalOnProperty(name = "banking.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_BATCH = "SELECT event_id, transaction_id, account_id, transaction_type, "
+            + "direction, amount, transaction_date, created_at FROM outbox_events ORDER BY event_id LIMIT ? FOR UPDATE";
+
+    private static final String DELETE = "DELETE FROM outbox_events WHERE event_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate relayTransaction;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Value("${banking.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${banking.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Autowired
+    public OutboxRelay(PlatformTransactionManager transactionManager) {
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.relayTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    // Drains full batches back to back, up to max-batches-per-poll, so a backlog does not hold the
+    // shared scheduler thread indefinitely
+    @Scheduled(fixedDelayString = "${banking.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed; events stay queued for the next poll", e);
+        }
+    }
+
+    // Publishes the oldest batch and returns its size; 0 means the outbox is empty
+    public synchronized int relayBatch() {
+        Integer relayed = relayTransaction.execute(status -> {
+            List<OutboxEventDTO> events = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new OutboxEventDTO(
+                    rs.getLong(1), rs.getLong(2), rs.getInt(3), TransactionType.valueOf(rs.getString(4)),
+                    TransactionDirection.valueOf(rs.getString(5)), rs.getBigDecimal(6),
+                    rs.getTimestamp(7).toLocalDateTime(), rs.getTimestamp(8).toLocalDateTime()), batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                outboxSink.publish(events);
+            } catch (RuntimeException e) {
+                bankingMetrics.outboxRelayed("failed", events.size());
+                throw e;
+            }
+            jdbcTemplate.batchUpdate(DELETE, events.stream()
+                    .map(event -> new Object[]{event.getEventId()})
+                    .toList());
+            return events.size();
+        });
+        if (relayed != null && relayed > 0) {
+            bankingMetrics.outboxRelayed("published", relayed);
+        }
+        return relayed == null ? 0 : relayed;
+    }
+}
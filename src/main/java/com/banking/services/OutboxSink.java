@@ -0,0 +1,12 @@
+package com.banking.services;
+
+import com.banking.dto.OutboxEventDTO;
+
+import java.util.List;
+
+// Where OutboxRelay delivers transaction events, in event_id order. publish() returns only once the
+// whole batch is accepted; throwing leaves the batch in the outbox, so it is offered again later
+public interface OutboxSink {
+
+    void publish(List<OutboxEventDTO> events);
+}
@@ -0,0 +1,60 @@
+package com.banking.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes an outbox_events row for every transactions row, inside the writing DB transaction, so an event
+// exists exactly when its transaction committed. A transaction's events are collected and inserted as one
+// JDBC batch just before commit, which keeps batch writers (group commit, batch ingest, ledger flush) at
+// one round trip, and runs after the write path has taken its account row locks
+@Component
+@ConditionalOnProperty(name = "banking.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxWriter {
+
+    private static final String INSERT = "INSERT INTO outbox_events (transaction_id, account_id, transaction_type, "
+            + "direction, amount, transaction_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Synchronous and not @TransactionalEventListener: the row must be part of the writer's transaction
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        Object[] row = {event.getTransactionId(), event.getAccountId(), event.getTransactionType().name(),
+                event.getDirection().name(), event.getAmount(), Timestamp.valueOf(event.getTransactionDate()),
+                Timestamp.valueOf(LocalDateTime.now())};
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            jdbcTemplate.update(INSERT, row);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Object[]> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(INSERT, rows);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+                }
+            });
+            pending = rows;
+        }
+        pending.add(row);
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.services;
+
+import com.banking.dto.PageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Builds bounded page requests for list endpoints. Sorting is limited to a whitelist of API field
+// names mapped to entity paths, and the ID is always the final tie-breaker so pages are stable.
+// Slices fetch size + 1 rows instead of running a COUNT over the whole table.
+@Component
+public class PageRequests {
+
+    @Value("${banking.pagination.default-limit:50}")
+    private int defaultPageSize;
+
+    @Value("${banking.pagination.max-limit:500}")
+    private int maxPageSize;
+
+    // Clamp the requested page size to the configured bounds
+    public int resolveSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // sort is "field" or "field,asc|desc"; sortable maps API field names to entity paths
+    public Pageable of(Integer page, Integer size, String sort, Map<String, String> sortable, String idPath) {
+        if (page != null && page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        Sort order = Sort.by(idPath);
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            String path = sortable.get(parts[0].trim());
+            if (path == null || parts.length > 2) {
+                throw new IllegalArgumentException("Unsupported sort: " + sort
+                        + "; sortable fields are " + sortable.keySet());
+            }
+            Sort.Direction direction = parts.length == 2
+                    ? Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported sort direction: " + parts[1]))
+                    : Sort.Direction.ASC;
+            order = path.equals(idPath) ? Sort.by(direction, idPath) : Sort.by(direction, path).and(order);
+        }
+        return PageRequest.of(page == null ? 0 : page, resolveSize(size), order);
+    }
+
+    public <T> PageDTO<T> toPage(Slice<T> slice) {
+        return new PageDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,212 @@
+package com.banking.services;
+
+import com.banking.dto.ReconciliationMismatchDTO;
+import com.banking.dto.ReconciliationReportDTO;
+import com.banking.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Checks that every account's balance equals the net of its transactions rows (credits minus debits).
+// The account ID space is split into ranges on a ForkJoinPool; each range reads its balances and streams
+// its transactions in one repeatable-read snapshot, summing cents into long arrays indexed by account.
+// Accounts opened with a balance or edited through PUT /accounts show up as mismatches by design.
+@Service
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private static final String SELECT_BALANCES = "SELECT account_id, balance FROM accounts "
+            + "WHERE account_id BETWEEN ? AND ?";
+
+    // Sign per row: rows from before the direction column fall back to their type, except transfer legs,
+    // which can't be told apart without it (0 = unclassified)
+    private static final String STREAM_TRANSACTIONS = "SELECT account_id, amount * 100, "
+            + "CASE WHEN direction = 'CREDIT' OR (direction IS NULL AND transaction_type = 'DEPOSIT') THEN 1 "
+            + "WHEN direction = 'DEBIT' OR (direction IS NULL AND transaction_type <> 'TRANSFER') THEN -1 "
+            + "ELSE 0 END "
+            + "FROM transactions WHERE account_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReportDTO latest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.reconciliation.range-size:50000}")
+    private int rangeSize;
+
+    @Value("${banking.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${banking.reconciliation.max-reported:1000}")
+    private int maxReported;
+
+    @Autowired
+    public ReconciliationService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                 @Value("${banking.reconciliation.fetch-size:5000}") int fetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.cron:0 30 1 * * *}")
+    public void reconcileNightly() {
+        ReconciliationReportDTO report = reconcile();
+        if (report.getMismatchCount() > 0 || report.getUnclassifiedTransferRows() > 0) {
+            log.warn("Reconciliation found {} mismatched accounts and {} unclassified transfer rows "
+                            + "({} accounts, {} transactions, {} ms)", report.getMismatchCount(),
+                    report.getUnclassifiedTransferRows(), report.getAccountsChecked(),
+                    report.getTransactionsScanned(), report.getDurationMs());
+        } else {
+            log.info("Reconciliation passed: {} accounts, {} transactions, {} ms", report.getAccountsChecked(),
+                    report.getTransactionsScanned(), report.getDurationMs());
+        }
+    }
+
+    public ReconciliationReportDTO reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reconciliation is already running");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            RangeResult result = new RangeResult();
+            Integer[] ids = jdbcTemplate.queryForObject("SELECT MIN(account_id), MAX(account_id) FROM accounts",
+                    (rs, rowNum) -> new Integer[]{(Integer) rs.getObject(1), (Integer) rs.getObject(2)});
+            if (ids != null && ids[0] != null) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    result = pool.invoke(new RangeTask(ids[0], ids[1]));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            result.mismatches.sort(Comparator.comparing(ReconciliationMismatchDTO::getAccountId));
+            latest = new ReconciliationReportDTO(startedAt, (System.nanoTime() - start) / 1_000_000,
+                    result.accounts, result.transactions, result.mismatchCount, result.unclassified,
+                    result.mismatches);
+            return latest;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public ReconciliationReportDTO getLatestReport() {
+        ReconciliationReportDTO report = latest;
+        if (report == null) {
+            throw new ResourceNotFoundException("No reconciliation has run yet");
+        }
+        return report;
+    }
+
+    // One range: balances and transactions come from the same snapshot, so concurrent writes can't
+    // produce false mismatches
+    private RangeResult reconcileRange(int from, int to) {
+        int size = to - from + 1;
+        long[] balanceCents = new long[size];
+        long[] netCents = new long[size];
+        boolean[] present = new boolean[size];
+        RangeResult result = new RangeResult();
+
+        snapshotTransaction.executeWithoutResult(status -> {
+            streamingJdbcTemplate.query(SELECT_BALANCES, rs -> {
+                int index = rs.getInt(1) - from;
+                balanceCents[index] = rs.getBigDecimal(2).movePointRight(2).longValueExact();
+                present[index] = true;
+            }, from, to);
+            streamingJdbcTemplate.query(STREAM_TRANSACTIONS, rs -> {
+                int index = rs.getInt(1) - from;
+                int sign = rs.getInt(3);
+                if (sign == 0) {
+                    result.unclassified++;
+                } else {
+                    netCents[index] += sign * rs.getLong(2);
+                }
+                result.transactions++;
+            }, from, to);
+        });
+
+        for (int i = 0; i < size; i++) {
+            if (!present[i]) {
+                continue;
+            }
+            result.accounts++;
+            if (balanceCents[i] != netCents[i]) {
+                result.mismatchCount++;
+                if (result.mismatches.size() < maxReported) {
+                    result.mismatches.add(new ReconciliationMismatchDTO(from + i,
+                            BigDecimal.valueOf(balanceCents[i], 2), BigDecimal.valueOf(netCents[i], 2),
+                            BigDecimal.valueOf(balanceCents[i] - netCents[i], 2)));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Halves the ID range until it fits in rangeSize, then reconciles it on the worker thread
+    private final class RangeTask extends RecursiveTask<RangeResult> {
+        private final int from;
+        private final int to;
+
+        RangeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RangeResult compute() {
+            if ((long) to - from + 1 <= rangeSize) {
+                return reconcileRange(from, to);
+            }
+            int middle = from + (to - from) / 2;
+            RangeTask left = new RangeTask(from, middle);
+            left.fork();
+            RangeResult right = new RangeTask(middle + 1, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private final class RangeResult {
+        long accounts;
+        long transactions;
+        long unclassified;
+        long mismatchCount;
+        final List<ReconciliationMismatchDTO> mismatches = new ArrayList<>();
+
+        RangeResult merge(RangeResult other) {
+            accounts += other.accounts;
+            transactions += other.transactions;
+            unclassified += other.unclassified;
+            mismatchCount += other.mismatchCount;
+            for (ReconciliationMismatchDTO mismatch : other.mismatches) {
+                if (mismatches.size() >= maxReported) {
+                    break;
+                }
+                mismatches.add(mismatch);
+            }
+            return this;
+        }
+    }
+}
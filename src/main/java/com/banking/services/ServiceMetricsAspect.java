@@ -0,0 +1,87 @@
+package com.banking.services;
+
+import com.banking.dto.CursorPageDTO;
+import com.banking.dto.PageDTO;
+import com.banking.exception.IdempotencyConflictException;
+import com.banking.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// Times every public TransactionService, AccountService and CustomerService call, plus idempotent
+// request handling, as banking.service tagged by service, operation and outcome, and records how many
+// rows each list call returned. Outcomes follow GlobalExceptionHandler: the 4xx results are rejected,
+// not_found and conflict, so only unexpected failures count as error
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.banking.services.TransactionService.*(..)) || "
+            + "execution(public * com.banking.services.AccountService.*(..)) || "
+            + "execution(public * com.banking.services.CustomerService.*(..)) || "
+            + "execution(public * com.banking.services.IdempotencyStore.execute(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String operation = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            recordRows(service, operation, result);
+            return result;
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("banking.service")
+                    .description("Service call latency")
+                    .tag("service", service)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof IdempotencyConflictException) {
+            return "conflict";
+        }
+        if (e instanceof IllegalArgumentException || e instanceof IllegalStateException) {
+            return "rejected";
+        }
+        return "error";
+    }
+
+    private void recordRows(String service, String operation, Object result) {
+        int rows;
+        if (result instanceof PageDTO<?> page) {
+            rows = page.getContent().size();
+        } else if (result instanceof CursorPageDTO<?> page) {
+            rows = page.getContent().size();
+        } else if (result instanceof Collection<?> list) {
+            rows = list.size();
+        } else {
+            return;
+        }
+        DistributionSummary.builder("banking.service.rows")
+                .description("Rows returned per list call")
+                .tag("service", service)
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
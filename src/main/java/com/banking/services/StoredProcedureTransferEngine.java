@@ -0,0 +1,98 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ParameterMode;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.StoredProcedureQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// MySQL-only engine (banking.transfer.engine=procedure): delegates to the transfer_money procedure. The
+// procedure runs in the caller's transaction and never commits itself, so the outbox_events rows written
+// for the events below and the caller's idempotency key commit (or roll back) together with the money
+@Component
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "procedure")
+public class StoredProcedureTransferEngine implements TransferEngine {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Present only with banking.ledger.enabled=true; then balances may only move through it
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    // Call transfer_money and read back the debit-side transaction ID from its OUT parameter
+    @Override
+    public Long transfer(Integer fromAccountId, Integer toAccountId, Money amount, String description) {
+        if (ledgerEngine != null) {
+            throw new IllegalStateException("transfer_money is not available while the in-memory ledger is enabled");
+        }
+        BigDecimal value = amount.toBigDecimal();
+        StoredProcedureQuery query = entityManager.createStoredProcedureQuery("transfer_money")
+                .registerStoredProcedureParameter(1, Integer.class, ParameterMode.IN)
+                .registerStoredProcedureParameter(2, Integer.class, ParameterMode.IN)
+                .registerStoredProcedureParameter(3, BigDecimal.class, ParameterMode.IN)
+                .registerStoredProcedureParameter(4, String.class, ParameterMode.IN)
+                .registerStoredProcedureParameter(5, Long.class, ParameterMode.OUT)
+                .setParameter(1, fromAccountId)
+                .setParameter(2, toAccountId)
+                .setParameter(3, value)
+                .setParameter(4, description);
+        try {
+            query.execute();
+        } catch (Exception e) {
+            if (hasMessage(e, "From account not found")) {
+                throw new ResourceNotFoundException("From account not found with id: " + fromAccountId);
+            }
+            if (hasMessage(e, "To account not found")) {
+                throw new ResourceNotFoundException("To account not found with id: " + toAccountId);
+            }
+            if (hasMessage(e, "Insufficient balance")) {
+                bankingMetrics.insufficientFunds("transfer");
+                bankingMetrics.transferFailed("procedure", "insufficient_funds");
+                throw new IllegalStateException("Insufficient funds for transfer");
+            }
+            bankingMetrics.transferFailed("procedure", "error");
+            throw new IllegalStateException("Transfer failed: " + e.getMessage());
+        }
+
+        Object transactionId = query.getOutputParameterValue(5);
+        if (transactionId == null) {
+            bankingMetrics.transferFailed("procedure", "no_transaction_id");
+            throw new IllegalStateException("Transfer transaction not found");
+        }
+        // transfer_money writes the credit leg at the ID after the debit leg
+        long debitId = ((Number) transactionId).longValue();
+        LocalDateTime now = LocalDateTime.now();
+        eventPublisher.publishEvent(new TransactionRecordedEvent(debitId, fromAccountId, TransactionType.TRANSFER,
+                TransactionDirection.DEBIT, value, now));
+        eventPublisher.publishEvent(new TransactionRecordedEvent(debitId + 1, toAccountId, TransactionType.TRANSFER,
+                TransactionDirection.CREDIT, value, now));
+        return debitId;
+    }
+
+    // The procedure signals SQLSTATE 45000 with a fixed text; the driver wraps it a few levels deep
+    private boolean hasMessage(Throwable e, String text) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.contains(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
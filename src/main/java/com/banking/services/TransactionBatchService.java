@@ -0,0 +1,201 @@
+package com.banking.services;
+
+import com.banking.dto.BatchItemResultDTO;
+import com.banking.dto.BatchResultDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Transaction;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Ingests deposit/withdrawal feeds: items are grouped by account, each account's balance moves once,
+// and the ledger rows go out as JDBC batches. Every item gets its own result.
+@Service
+public class TransactionBatchService {
+
+    // Flush and clear the session every this many rows; a multiple of hibernate.jdbc.batch_size
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Present only with banking.ledger.enabled=true; then balances may only move through it
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.batch.max-items:50000}")
+    private int maxItems;
+
+    public BatchResultDTO ingest(List<TransactionDTO> items) {
+        if (ledgerEngine != null) {
+            throw new IllegalStateException("Batch ingest is not available while the in-memory ledger is enabled");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + maxItems + " transactions");
+        }
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[items.size()];
+        Map<Integer, List<Integer>> itemsByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error != null) {
+                results[i] = BatchItemResultDTO.rejected(i, error);
+            } else {
+                itemsByAccount.computeIfAbsent(items.get(i).getAccountId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // One DB transaction per account; a failure rolls back that account's items only
+        for (Map.Entry<Integer, List<Integer>> entry : itemsByAccount.entrySet()) {
+            Integer accountId = entry.getKey();
+            List<Integer> indexes = entry.getValue();
+            try {
+                accountLocks.withLock(accountId, () -> transactionTemplate.execute(status -> {
+                    applyAccount(accountId, indexes, items, results);
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                for (Integer index : indexes) {
+                    results[index] = BatchItemResultDTO.rejected(index, e.getMessage());
+                }
+            }
+        }
+
+        int accepted = 0;
+        for (BatchItemResultDTO result : results) {
+            if (result.getStatus() == BatchItemResultDTO.Status.ACCEPTED) {
+                accepted++;
+            }
+        }
+        return new BatchResultDTO(accepted, results.length - accepted, Arrays.asList(results));
+    }
+
+    // Replay the account's items in order against a locked balance, then apply the net delta once
+    private void applyAccount(Integer accountId, List<Integer> indexes, List<TransactionDTO> items,
+                              BatchItemResultDTO[] results) {
+        long balance = accountRepository.findBalanceForUpdate(accountId).map(Money::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + accountId)).cents();
+
+        // Replay in raw cents so the per-item loop allocates nothing beyond the amount conversion
+        long delta = 0;
+        List<Integer> accepted = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            TransactionDTO item = items.get(index);
+            long amount = Money.of(item.getAmount()).cents();
+            long signed = item.getTransactionType() == TransactionType.DEPOSIT ? amount : -amount;
+            long next;
+            try {
+                next = Money.addCents(balance, signed);
+            } catch (IllegalArgumentException e) {
+                results[index] = BatchItemResultDTO.rejected(index, e.getMessage());
+                continue;
+            }
+            if (next < 0) {
+                bankingMetrics.insufficientFunds("batch");
+                results[index] = BatchItemResultDTO.rejected(index, "Insufficient funds for withdrawal");
+                continue;
+            }
+            balance = next;
+            delta += signed;
+            accepted.add(index);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        if (delta != 0 && accountRepository.applyBalanceDelta(accountId, Money.ofCents(delta).toBigDecimal()) == 0) {
+            throw new IllegalStateException("Balance changed concurrently for account " + accountId);
+        }
+
+        Account account = null;
+        LocalDateTime now = LocalDateTime.now();
+        for (int n = 0; n < accepted.size(); n++) {
+            if (n % FLUSH_INTERVAL == 0) {
+                if (n > 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+                account = accountRepository.getReferenceById(accountId);
+            }
+            int index = accepted.get(n);
+            TransactionDTO item = items.get(index);
+            Transaction transaction = new Transaction();
+            transaction.setAccount(account);
+            transaction.setTransactionType(item.getTransactionType());
+            transaction.setAmount(item.getAmount());
+            transaction.setDescription(item.getDescription());
+            transaction.setTransactionDate(now);
+            // Table-generated IDs are assigned here, before the batched INSERT runs
+            entityManager.persist(transaction);
+            results[index] = BatchItemResultDTO.accepted(index, transaction.getTransactionId());
+            eventPublisher.publishEvent(new TransactionRecordedEvent(transaction.getTransactionId(), accountId,
+                    item.getTransactionType(), transaction.getDirection(), item.getAmount(), now));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String validate(TransactionDTO item) {
+        if (item == null) {
+            return "Transaction is missing";
+        }
+        Set<ConstraintViolation<TransactionDTO>> violations =
+                validator.validate(item, TransactionDTO.CreateValidation.class, Default.class);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (item.getTransactionType() != TransactionType.DEPOSIT
+                && item.getTransactionType() != TransactionType.WITHDRAWAL) {
+            return "Only DEPOSIT and WITHDRAWAL transactions can be batched";
+        }
+        try {
+            Money.of(item.getAmount());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset position in (transaction_date, transaction_id) order, handed to clients as a base64 token
+final class TransactionCursor {
+
+    private final LocalDateTime transactionDate;
+    private final Long transactionId;
+
+    TransactionCursor(LocalDateTime transactionDate, Long transactionId) {
+        this.transactionDate = transactionDate;
+        this.transactionId = transactionId;
+    }
+
+    LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+
+    Long getTransactionId() {
+        return transactionId;
+    }
+
+    String encode() {
+        String raw = transactionDate + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.services;
+
+import com.banking.dto.ExportFormat;
+import com.banking.dto.TransactionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Writes transactions one row at a time; nothing is buffered beyond the current row
+class TransactionExportWriter {
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String CSV_HEADER =
+            "transaction_id,account_id,transaction_type,amount,transaction_date,description,target_account_id\n";
+
+    private final ExportFormat format;
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+
+    TransactionExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    void write(TransactionDTO transaction) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(transaction));
+            out.write(NEWLINE);
+        } else {
+            out.write(toCsvLine(transaction).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String toCsvLine(TransactionDTO transaction) {
+        return transaction.getTransactionId() + "," +
+                transaction.getAccountId() + "," +
+                transaction.getTransactionType() + "," +
+                transaction.getAmount().toPlainString() + "," +
+                nullToEmpty(transaction.getTransactionDate()) + "," +
+                escapeCsv(transaction.getDescription()) + "," +
+                nullToEmpty(transaction.getTargetAccountId()) + "\n";
+    }
+
+    private String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // Quote fields containing separators, quotes or line breaks (RFC 4180)
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
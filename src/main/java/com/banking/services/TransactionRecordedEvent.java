@@ -0,0 +1,37 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published for every transactions row a write path inserts, inside the writing DB transaction;
+// listeners that need committed data use @TransactionalEventListener
+public class TransactionRecordedEvent {
+
+    private final Long transactionId;
+    private final Integer accountId;
+    private final TransactionType transactionType;
+    private final TransactionDirection direction;
+    private final BigDecimal amount;
+    private final LocalDateTime transactionDate;
+
+    public TransactionRecordedEvent(Long transactionId, Integer accountId, TransactionType transactionType,
+                                    TransactionDirection direction, BigDecimal amount,
+                                    LocalDateTime transactionDate) {
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.transactionType = transactionType;
+        this.direction = direction;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+    }
+
+    public Long getTransactionId() { return transactionId; }
+    public Integer getAccountId() { return accountId; }
+    public TransactionType getTransactionType() { return transactionType; }
+    public TransactionDirection getDirection() { return direction; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+}
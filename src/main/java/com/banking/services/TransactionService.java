@@ -1,40 +1,85 @@
 package com.banking.services;
 
+import com.banking.dto.CursorPageDTO;
+import com.banking.dto.PageDTO;
+import com.banking.dto.ExportFormat;
 import com.banking.dto.TransactionDTO;
 import com.banking.dto.TransactionType;
-import com.banking.entity.Account;
 import com.banking.entity.Transaction;
 import com.banking.exception.ResourceNotFoundException;
 import com.banking.repository.AccountRepository;
+import com.banking.repository.IdempotencyRecordRepository;
 import com.banking.repository.TransactionRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionService {
 
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "transactionId", "transactionId",
+            "transactionDate", "transactionDate",
+            "amount", "amount");
+
     @Autowired
     private TransactionRepository transactionRepository;
 
     @Autowired
     private AccountRepository accountRepository;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PageRequests pageRequests;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Present only with banking.ledger.enabled=true; then it applies deposits, withdrawals and transfers
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
 
-    // Get all transactions
-    public List<TransactionDTO> getAllTransactions() {
-        return transactionRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Present only with banking.group-commit.enabled=true; then deposits and withdrawals commit in groups
+    @Autowired(required = false)
+    private GroupCommitPipeline groupCommitPipeline;
+
+    // Get one page of transactions, optionally filtered by account and type
+    public PageDTO<TransactionDTO> getTransactions(Integer accountId, TransactionType transactionType,
+                                                   Integer page, Integer size, String sort) {
+        return pageRequests.toPage(transactionRepository.findTransactionPage(accountId, transactionType,
+                pageRequests.of(page, size, sort, SORTABLE, "transactionId")));
     }
 
     // Get transaction by ID
@@ -44,71 +89,103 @@ public class TransactionService {
         return convertToDTO(transaction);
     }
 
-    // Get transactions by account ID
-    public List<TransactionDTO> getTransactionsByAccountId(Integer accountId) {
-        accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + accountId));
-        return transactionRepository.findByAccountAccountId(accountId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Get one page of an account's history, newest first
+    public CursorPageDTO<TransactionDTO> getTransactionsByAccountId(Integer accountId, String cursor, Integer limit) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Account not found with id: " + accountId);
+        }
+        int pageSize = pageRequests.resolveSize(limit);
+        List<TransactionDTO> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findAccountHistory(accountId, Limit.of(pageSize + 1));
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findAccountHistoryBefore(accountId, position.getTransactionDate(),
+                    position.getTransactionId(), Limit.of(pageSize + 1));
+        }
+        return toPage(rows, pageSize);
     }
 
-    // Get transactions by date range
-    public List<TransactionDTO> getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+    // Get one page of transactions in a date range, oldest first
+    public CursorPageDTO<TransactionDTO> getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                                    String cursor, Integer limit) {
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("Start date must be before end date");
         }
-        return transactionRepository.findByTransactionDateBetween(startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        int pageSize = pageRequests.resolveSize(limit);
+        List<TransactionDTO> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findDateRange(startDate, endDate, Limit.of(pageSize + 1));
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findDateRangeAfter(startDate, endDate, position.getTransactionDate(),
+                    position.getTransactionId(), Limit.of(pageSize + 1));
+        }
+        return toPage(rows, pageSize);
     }
 
-    // Record a deposit
-    @Transactional
-    public TransactionDTO deposit(TransactionDTO transactionDTO) {
-        validateTransactionDTO(transactionDTO, TransactionType.DEPOSIT);
-        Account account = accountRepository.findById(transactionDTO.getAccountId())
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + transactionDTO.getAccountId()));
+    // Stream every transaction in a date range to the output. Rows arrive as DTO projections, so the
+    // persistence context stays empty; the output is flushed periodically so the response never buffers.
+    @Transactional(readOnly = true)
+    public void exportTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                              ExportFormat format, OutputStream out) throws IOException {
+        TransactionExportWriter writer = new TransactionExportWriter(format, out, objectMapper);
+        writer.writeHeader();
+        try (Stream<TransactionDTO> rows = transactionRepository.streamDateRange(startDate, endDate)) {
+            Iterator<TransactionDTO> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+    }
 
-        // Update account balance
-        account.setBalance(account.getBalance().add(transactionDTO.getAmount()));
-        accountRepository.save(account);
+    // Record a deposit. The balance moves in one guarded UPDATE; the per-account lock keeps each
+    // account's ledger rows in commit order.
+    public TransactionDTO deposit(TransactionDTO transactionDTO) {
+        return deposit(transactionDTO, null);
+    }
 
-        // Record transaction
-        Transaction transaction = convertToEntity(transactionDTO);
-        transaction.setAccount(account);
-        transaction.setTransactionDate(LocalDateTime.now());
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return convertToDTO(savedTransaction);
+    // With a claim, its idempotency_keys row commits or rolls back together with the deposit
+    public TransactionDTO deposit(TransactionDTO transactionDTO, IdempotencyClaim claim) {
+        validateTransactionDTO(transactionDTO, TransactionType.DEPOSIT);
+        if (ledgerEngine != null) {
+            return ledgerEngine.deposit(transactionDTO, claim);
+        }
+        if (groupCommitPipeline != null) {
+            return groupCommitPipeline.execute(transactionDTO, Money.of(transactionDTO.getAmount()), claim);
+        }
+        return accountLocks.withLock(transactionDTO.getAccountId(),
+                () -> inTransaction(claim, () -> recordDeposit(transactionDTO)));
     }
 
-    // Record a withdrawal
-    @Transactional
+    // Record a withdrawal; the guarded UPDATE refuses to take the balance below zero
     public TransactionDTO withdraw(TransactionDTO transactionDTO) {
-        validateTransactionDTO(transactionDTO, TransactionType.WITHDRAWAL);
-        Account account = accountRepository.findById(transactionDTO.getAccountId())
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + transactionDTO.getAccountId()));
+        return withdraw(transactionDTO, null);
+    }
 
-        // Check sufficient balance
-        if (account.getBalance().compareTo(transactionDTO.getAmount()) < 0) {
-            throw new IllegalArgumentException("Insufficient funds for withdrawal");
+    public TransactionDTO withdraw(TransactionDTO transactionDTO, IdempotencyClaim claim) {
+        validateTransactionDTO(transactionDTO, TransactionType.WITHDRAWAL);
+        if (ledgerEngine != null) {
+            return ledgerEngine.withdraw(transactionDTO, claim);
         }
-
-        // Update account balance
-        account.setBalance(account.getBalance().subtract(transactionDTO.getAmount()));
-        accountRepository.save(account);
-
-        // Record transaction
-        Transaction transaction = convertToEntity(transactionDTO);
-        transaction.setAccount(account);
-        transaction.setTransactionDate(LocalDateTime.now());
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return convertToDTO(savedTransaction);
+        if (groupCommitPipeline != null) {
+            return groupCommitPipeline.execute(transactionDTO, Money.of(transactionDTO.getAmount()), claim);
+        }
+        return accountLocks.withLock(transactionDTO.getAccountId(),
+                () -> inTransaction(claim, () -> recordWithdrawal(transactionDTO)));
     }
 
-    // Perform a transfer using transfer_money stored procedure
-    @Transactional
+    // Perform a transfer through the configured transfer engine, holding both account locks through commit
     public TransactionDTO transfer(TransactionDTO transactionDTO) {
+        return transfer(transactionDTO, null);
+    }
+
+    public TransactionDTO transfer(TransactionDTO transactionDTO, IdempotencyClaim claim) {
         if (transactionDTO.getTargetAccountId() == null) {
             throw new IllegalArgumentException("Target account ID is mandatory for transfer");
         }
@@ -116,50 +193,96 @@ public class TransactionService {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
         validateTransactionDTO(transactionDTO, TransactionType.TRANSFER);
+        if (ledgerEngine != null) {
+            return ledgerEngine.transfer(transactionDTO, claim);
+        }
+        Money amount = Money.of(transactionDTO.getAmount());
+        return accountLocks.withLocks(transactionDTO.getAccountId(), transactionDTO.getTargetAccountId(),
+                () -> inTransaction(claim, () -> recordTransfer(transactionDTO, amount)));
+    }
 
-        Account fromAccount = accountRepository.findById(transactionDTO.getAccountId())
-                .orElseThrow(() -> new ResourceNotFoundException("From account not found with id: " + transactionDTO.getAccountId()));
-        Account toAccount = accountRepository.findById(transactionDTO.getTargetAccountId())
-                .orElseThrow(() -> new ResourceNotFoundException("To account not found with id: " + transactionDTO.getTargetAccountId()));
+    // Run the operation in one transaction. A claim is inserted first, so a second instance holding the
+    // same key blocks on that row and then fails on the duplicate, and is completed last; a crash or
+    // failure anywhere in between rolls back the key together with the money.
+    private TransactionDTO inTransaction(IdempotencyClaim claim, Supplier<TransactionDTO> operation) {
+        return transactionTemplate.execute(status -> {
+            if (claim != null) {
+                idempotencyRecordRepository.claim(claim.key(), claim.requestHash(), LocalDateTime.now());
+            }
+            TransactionDTO response = operation.get();
+            if (claim != null) {
+                idempotencyRecordRepository.complete(claim.key(), response.getTransactionId());
+            }
+            return response;
+        });
+    }
 
-        // Call stored procedure with description
-        String description = transactionDTO.getDescription() != null ? transactionDTO.getDescription() : "Transfer to account " + transactionDTO.getTargetAccountId();
-        try {
-            entityManager.createNativeQuery("CALL transfer_money(:from_account_id, :to_account_id, :amount, :description)")
-                    .setParameter("from_account_id", transactionDTO.getAccountId())
-                    .setParameter("to_account_id", transactionDTO.getTargetAccountId())
-                    .setParameter("amount", transactionDTO.getAmount())
-                    .setParameter("description", description)
-                    .executeUpdate();
-        } catch (Exception e) {
-            String message = e.getMessage();
-            if (message != null && message.contains("Insufficient funds")) {
-                throw new IllegalStateException("Insufficient funds for transfer");
+    // The validated request amount is bound as is: a single UPDATE does not need it in cents
+    private TransactionDTO recordDeposit(TransactionDTO transactionDTO) {
+        if (accountRepository.applyBalanceDelta(transactionDTO.getAccountId(), transactionDTO.getAmount()) == 0) {
+            throw new ResourceNotFoundException("Account not found with id: " + transactionDTO.getAccountId());
+        }
+        return recordTransaction(transactionDTO);
+    }
+
+    private TransactionDTO recordWithdrawal(TransactionDTO transactionDTO) {
+        if (accountRepository.applyBalanceDelta(transactionDTO.getAccountId(), transactionDTO.getAmount().negate()) == 0) {
+            // Zero rows means either no such account or not enough money; only the failure path pays for the check
+            if (!accountRepository.existsById(transactionDTO.getAccountId())) {
+                throw new ResourceNotFoundException("Account not found with id: " + transactionDTO.getAccountId());
             }
-            throw new IllegalStateException("Transfer failed: " + message);
+            bankingMetrics.insufficientFunds("withdrawal");
+            throw new IllegalArgumentException("Insufficient funds for withdrawal");
         }
+        return recordTransaction(transactionDTO);
+    }
 
-        // Retrieve the latest transfer transaction for the from_account
-        Transaction transaction = transactionRepository.findByAccountAccountId(transactionDTO.getAccountId())
-                .stream()
-                .filter(t -> t.getTransactionType() == TransactionType.TRANSFER
-                        && t.getTargetAccount() != null
-                        && t.getTargetAccount().getAccountId().equals(transactionDTO.getTargetAccountId())
-                        && t.getAmount().equals(transactionDTO.getAmount()))
-                .max((t1, t2) -> t1.getTransactionDate().compareTo(t2.getTransactionDate()))
+    // Insert the ledger row against a reference to the account, without loading it
+    private TransactionDTO recordTransaction(TransactionDTO transactionDTO) {
+        Transaction transaction = convertToEntity(transactionDTO);
+        transaction.setAccount(accountRepository.getReferenceById(transactionDTO.getAccountId()));
+        transaction.setTransactionDate(LocalDateTime.now());
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(new TransactionRecordedEvent(savedTransaction.getTransactionId(),
+                transactionDTO.getAccountId(), savedTransaction.getTransactionType(), savedTransaction.getDirection(),
+                savedTransaction.getAmount(), savedTransaction.getTransactionDate()));
+        return convertToDTO(savedTransaction);
+    }
+
+    // Accounts are not looked up here: the engine locks both rows anyway and reports a missing one
+    private TransactionDTO recordTransfer(TransactionDTO transactionDTO, Money amount) {
+        // Run the transfer; the engine hands back the ID of the debit-side row it inserted
+        String description = transactionDTO.getDescription() != null ? transactionDTO.getDescription() : "Transfer to account " + transactionDTO.getTargetAccountId();
+        Long transactionId = transferEngine.transfer(transactionDTO.getAccountId(), transactionDTO.getTargetAccountId(),
+                amount, description);
+
+        Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new IllegalStateException("Transfer transaction not found"));
         return convertToDTO(transaction);
     }
 
+    // Rows were fetched with one extra element so we know whether another page exists
+    private CursorPageDTO<TransactionDTO> toPage(List<TransactionDTO> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionDTO last = content.get(content.size() - 1);
+            nextCursor = new TransactionCursor(last.getTransactionDate(), last.getTransactionId()).encode();
+        }
+        return new CursorPageDTO<>(content, nextCursor, hasMore);
+    }
 
-    // Validate transaction DTO
+    // Validate transaction DTO. The amount is checked against the cents range without converting it;
+    // only paths that do arithmetic on it (group commit, ledger, transfers) build a Money.
     private void validateTransactionDTO(TransactionDTO transactionDTO, TransactionType expectedType) {
         if (transactionDTO.getTransactionType() != expectedType) {
             throw new IllegalArgumentException("Invalid transaction type: expected " + expectedType);
         }
-        if (transactionDTO.getAmount() == null || transactionDTO.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (transactionDTO.getAmount() == null || transactionDTO.getAmount().signum() <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
+        Money.checkAmount(transactionDTO.getAmount());
     }
 
     // Convert Entity to DTO
@@ -0,0 +1,7 @@
+package com.banking.services;
+
+// Moves money between two accounts and reports the ID of the debit-side transaction row it wrote
+public interface TransferEngine {
+
+    Long transfer(Integer fromAccountId, Integer toAccountId, Money amount, String description);
+}
@@ -0,0 +1,72 @@
+package com.banking;
+
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Branch;
+import com.banking.entity.Customer;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.BranchRepository;
+import com.banking.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Creates a branch, customer and account with unique names for tests that share one database, and
+// builds the transaction requests tests and benchmarks send against them
+@Component
+public class TestAccountFactory {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    public Account create(BigDecimal balance) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Branch branch = new Branch();
+        branch.setBranchName("Branch " + suffix);
+        branch.setBranchAddress("1 Main St");
+        branch = branchRepository.save(branch);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Test");
+        customer.setLastName("Customer");
+        customer.setEmail(suffix + "@example.com");
+        customer = customerRepository.save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setBranch(branch);
+        account.setAccountType(Account.AccountType.CHECKING);
+        account.setAccountNumber("ACC" + suffix);
+        account.setBalance(balance);
+        return accountRepository.save(account);
+    }
+
+    public BigDecimal balanceOf(Account account) {
+        return accountRepository.findById(account.getAccountId()).orElseThrow().getBalance().setScale(2);
+    }
+
+    // A deposit, withdrawal or transfer request; target is only set for transfers
+    public static TransactionDTO request(Account account, Account target, TransactionType type, String amount) {
+        return request(account.getAccountId(), target == null ? null : target.getAccountId(), type, amount);
+    }
+
+    public static TransactionDTO request(Integer accountId, Integer targetAccountId, TransactionType type,
+                                         String amount) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setAccountId(accountId);
+        dto.setTargetAccountId(targetAccountId);
+        dto.setTransactionType(type);
+        dto.setAmount(amount == null ? null : new BigDecimal(amount));
+        return dto;
+    }
+}
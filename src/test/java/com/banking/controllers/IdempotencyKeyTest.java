@@ -0,0 +1,156 @@
+package com.banking.controllers;
+
+import com.banking.TestAccountFactory;
+import com.banking.entity.Account;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.services.TransactionRecordedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyKeyTest {
+
+    private static final int DUPLICATES = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+
+    @Test
+    void concurrentAndLaterRetriesExecuteOnceAndReturnTheOriginalResponse() throws Exception {
+        Account account = accounts.create(BigDecimal.ZERO);
+        String key = UUID.randomUUID().toString();
+        String body = deposit(account, "25.00");
+        long transactionsBefore = transactionRepository.count();
+
+        List<Callable<String>> requests = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            requests.add(() -> postDeposit(key, body).getResponse().getContentAsString());
+        }
+        Set<String> responses = new HashSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        try {
+            for (Future<String> response : executor.invokeAll(requests)) {
+                responses.add(response.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        responses.add(postDeposit(key, body).getResponse().getContentAsString());
+
+        assertEquals(1, responses.size());
+        assertEquals(new BigDecimal("25.00"), accounts.balanceOf(account));
+        assertEquals(transactionsBefore + 1, transactionRepository.count());
+        assertNotNull(idempotencyRecordRepository.findById(key).orElseThrow().getTransactionId());
+
+        mockMvc.perform(post("/transactions/deposit")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deposit(account, "26.00")))
+                .andExpect(status().isConflict());
+        assertEquals(new BigDecimal("25.00"), accounts.balanceOf(account));
+    }
+
+    @Test
+    void failedRequestReleasesItsKey() throws Exception {
+        Account account = accounts.create(new BigDecimal("5.00"));
+        String key = UUID.randomUUID().toString();
+        String body = "{\"accountId\":" + account.getAccountId()
+                + ",\"transactionType\":\"WITHDRAWAL\",\"amount\":10.00}";
+
+        mockMvc.perform(post("/transactions/withdrawal")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+        assertFalse(idempotencyRecordRepository.existsById(key));
+    }
+
+    // A failure after the key row and the balance update (here a listener on the recorded row) stands
+    // in for a crash before commit: key and money roll back together, and the retry runs exactly once
+    @Test
+    void failureAfterClaimingRollsBackTheKeyWithTheMoney() throws Exception {
+        Account account = accounts.create(BigDecimal.ZERO);
+        String key = UUID.randomUUID().toString();
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        ApplicationListener<ApplicationEvent> crash = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof TransactionRecordedEvent recorded
+                    && recorded.getAccountId().equals(account.getAccountId())
+                    && failNext.getAndSet(false)) {
+                throw new IllegalStateException("Crashed before commit");
+            }
+        };
+        eventMulticaster.addApplicationListener(crash);
+        try {
+            mockMvc.perform(post("/transactions/deposit")
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(deposit(account, "40.00")))
+                    .andExpect(status().isBadRequest());
+            assertFalse(idempotencyRecordRepository.existsById(key));
+            assertEquals(new BigDecimal("0.00"), accounts.balanceOf(account));
+
+            postDeposit(key, deposit(account, "40.00"));
+            postDeposit(key, deposit(account, "40.00"));
+        } finally {
+            eventMulticaster.removeApplicationListener(crash);
+        }
+        assertEquals(new BigDecimal("40.00"), accounts.balanceOf(account));
+        assertNotNull(idempotencyRecordRepository.findById(key).orElseThrow().getTransactionId());
+    }
+
+    private MvcResult postDeposit(String key, String body) throws Exception {
+        return mockMvc.perform(post("/transactions/deposit")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static String deposit(Account account, String amount) {
+        return "{\"accountId\":" + account.getAccountId()
+                + ",\"transactionType\":\"DEPOSIT\",\"amount\":" + amount + "}";
+    }
+}
@@ -0,0 +1,120 @@
+package com.banking.controllers;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.BranchDTO;
+import com.banking.dto.CustomerDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.services.AccountService;
+import com.banking.services.BranchService;
+import com.banking.services.CustomerService;
+import com.banking.services.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every list endpoint must cost a fixed number of SQL statements, however many rows it returns
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListQueryCountTest {
+
+    private static final int ACCOUNTS = 3;
+    private static final int DEPOSITS_PER_ACCOUNT = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Statistics statistics;
+    private Integer branchId;
+    private Integer customerId;
+    private Integer accountId;
+    private String lastName;
+
+    @BeforeEach
+    void createAccountsWithHistory() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        lastName = "Count" + suffix;
+        branchId = branchService.createBranch(new BranchDTO(null, "Count " + suffix, "1 Main St", null))
+                .getBranchId();
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName("Ada");
+        customer.setLastName(lastName);
+        customer.setEmail(suffix + "@example.com");
+        customerId = customerService.createCustomer(customer).getCustomerId();
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountId = accountService.createAccount(new AccountDTO(null, customerId, branchId,
+                    Account.AccountType.SAVINGS, "QC" + i + suffix, BigDecimal.TEN, null)).getAccountId();
+            for (int d = 0; d < DEPOSITS_PER_ACCOUNT; d++) {
+                transactionService.deposit(request(accountId, null, TransactionType.DEPOSIT, "1"));
+            }
+        }
+    }
+
+    @Test
+    void accountListsRunOneStatement() throws Exception {
+        assertStatements(1, "/accounts?branch_id=" + branchId, ACCOUNTS);
+        customerService.getCustomerById(customerId);
+        assertStatements(1, "/accounts/customer/" + customerId, ACCOUNTS);
+    }
+
+    @Test
+    void customerAndSummaryListsRunOneStatement() throws Exception {
+        assertStatements(1, "/customers?last_name=" + lastName, 1);
+        assertStatements(1, "/account-summary?branch_id=" + branchId, ACCOUNTS);
+        assertStatements(1, "/account-summary/customer/" + customerId, ACCOUNTS);
+    }
+
+    @Test
+    void transactionListsRunAFixedNumberOfStatements() throws Exception {
+        assertStatements(1, "/transactions?account_id=" + accountId, DEPOSITS_PER_ACCOUNT);
+        // Account existence check plus the page
+        assertStatements(2, "/transactions/account/" + accountId, DEPOSITS_PER_ACCOUNT);
+        LocalDateTime now = LocalDateTime.now();
+        assertStatements(1, "/transactions/date?start_date=" + now.minusMinutes(5)
+                + "&end_date=" + now.plusMinutes(5), null);
+    }
+
+    private void assertStatements(int expected, String url, Integer expectedRows) throws Exception {
+        statistics.clear();
+        var result = mockMvc.perform(get(url)).andExpect(status().isOk());
+        if (expectedRows != null) {
+            String content = url.startsWith("/accounts/customer") || url.startsWith("/account-summary/customer")
+                    ? "$.length()" : "$.content.length()";
+            result.andExpect(jsonPath(content).value(expectedRows));
+        }
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements for " + url);
+    }
+}
@@ -0,0 +1,123 @@
+package com.banking.controllers;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.services.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionExportTest {
+
+    // Far enough back that rows written by other tests never fall inside the window
+    private static final LocalDateTime START = LocalDateTime.of(1990, 1, 2, 10, 0);
+    private static final LocalDateTime END = START.plusHours(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsTheInclusiveRangeAsEscapedCsvAndAsNdjson() throws Exception {
+        Account account = accounts.create(BigDecimal.ZERO);
+        deposit(account, "10.00", "Before", START.minusSeconds(1));
+        TransactionDTO atStart = deposit(account, "20.00", "Opening", START);
+        TransactionDTO quoted = deposit(account, "25.00", "Rent, \"March\"\nsecond line", START.plusMinutes(30));
+        TransactionDTO atEnd = deposit(account, "30.00", null, END);
+        deposit(account, "40.00", "After", END.plusSeconds(1));
+
+        String csv = export("csv")
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("transaction_id,account_id,transaction_type,amount,transaction_date,description,target_account_id\n"
+                        + atStart.getTransactionId() + "," + account.getAccountId() + ",DEPOSIT,20.00,1990-01-02T10:00,Opening,\n"
+                        + quoted.getTransactionId() + "," + account.getAccountId()
+                        + ",DEPOSIT,25.00,1990-01-02T10:30,\"Rent, \"\"March\"\"\nsecond line\",\n"
+                        + atEnd.getTransactionId() + "," + account.getAccountId() + ",DEPOSIT,30.00,1990-01-02T11:00,,\n",
+                csv);
+
+        String ndjson = export("ndjson")
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+        List<TransactionDTO> rows = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            rows.add(objectMapper.readValue(line, TransactionDTO.class));
+        }
+        assertEquals(List.of(atStart.getTransactionId(), quoted.getTransactionId(), atEnd.getTransactionId()),
+                rows.stream().map(TransactionDTO::getTransactionId).toList());
+        assertEquals("Rent, \"March\"\nsecond line", rows.get(1).getDescription());
+        assertEquals(START.plusMinutes(30), rows.get(1).getTransactionDate());
+        assertEquals(0, new BigDecimal("25.00").compareTo(rows.get(1).getAmount()));
+    }
+
+    // Both are rejected before the response is committed, so they still get a status code
+    @Test
+    void rejectsAnInvertedRangeAndAnUnknownFormat() throws Exception {
+        mockMvc.perform(get("/transactions/export")
+                        .param("start_date", END.toString())
+                        .param("end_date", START.toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/export")
+                        .param("start_date", START.toString())
+                        .param("end_date", END.toString())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/transactions/export")
+                        .param("start_date", START.toString())
+                        .param("end_date", END.toString())
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private TransactionDTO deposit(Account account, String amount, String description, LocalDateTime date) {
+        TransactionDTO deposit = request(account, null, TransactionType.DEPOSIT, amount);
+        deposit.setDescription(description);
+        TransactionDTO recorded = transactionService.deposit(deposit);
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE transaction_id = ?",
+                Timestamp.valueOf(date), recorded.getTransactionId());
+        return recorded;
+    }
+}
@@ -0,0 +1,52 @@
+package com.banking.entity;
+
+import com.banking.repository.BranchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PooledTableIdGeneratorTest {
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A database whose id_generators row is missing (e.g. the table was just added by ddl-auto=update)
+    // must continue past the rows it already has instead of handing out IDs from 1 again
+    @Test
+    void seedsAMissingSequenceRowPastTheHighestExistingId() {
+        int before = branch().getBranchId();
+        jdbcTemplate.update("DELETE FROM id_generators WHERE sequence_name = 'branches'");
+
+        // Enough inserts to use up the cached block and make the generator go back to the table
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i <= PooledTableIdGenerator.DEFAULT_BLOCK_SIZE; i++) {
+            int id = branch().getBranchId();
+            assertTrue(id > before, "ID " + id + " reused below " + before);
+            ids.add(id);
+        }
+        assertEquals(PooledTableIdGenerator.DEFAULT_BLOCK_SIZE + 1, ids.size());
+
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(branch_id) FROM branches", Integer.class);
+        Long nextVal = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = 'branches'", Long.class);
+        assertTrue(nextVal > max, "next_val " + nextVal + " is not past " + max);
+    }
+
+    private Branch branch() {
+        Branch branch = new Branch();
+        branch.setBranchName("Branch");
+        branch.setBranchAddress("1 Main St");
+        return branchRepository.save(branch);
+    }
+}
@@ -0,0 +1,185 @@
+package com.banking.load;
+
+import com.banking.BankingApplication;
+import com.banking.TestAccountFactory;
+import com.banking.dto.BranchDTO;
+import com.banking.services.BranchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compares request execution on Tomcat's platform pool with virtual threads during a DB latency
+// spike: every connection is held for an extra DB_LATENCY, so DB-bound requests (GET /accounts/{id})
+// queue on the connection pool. Cached branch reads (GET /branches/{id}) need no connection; on the
+// platform pool they still wait for a worker thread, on virtual threads they do not.
+// Run with: mvn -Pload-test test
+@Tag("load")
+class RequestExecutionLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestExecutionLoadTest.class);
+
+    private static final Duration DB_LATENCY = Duration.ofMillis(25);
+    private static final Duration RUN_TIME = Duration.ofSeconds(10);
+    private static final int CLIENTS = 400;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int POOL_SIZE = 20;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        // Logged as one message so the rows stay together and aligned
+        StringBuilder table = new StringBuilder(System.lineSeparator())
+                .append(String.format("%-9s %-10s %10s %10s %10s%n", "mode", "endpoint", "req/s", "p50 ms", "p99 ms"));
+        platform.appendTo(table, "platform");
+        virtual.appendTo(table, "virtual");
+        log.info("Request execution results:{}", table);
+
+        assertEquals(0, platform.errors.get(), "platform run had failed requests");
+        assertEquals(0, virtual.errors.get(), "virtual run had failed requests");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new SlowConnections()))
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.banking.load=INFO",
+                        "--spring.datasource.url=jdbc:h2:mem:load_" + virtualThreads
+                                + ";DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=30000");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Integer accountId = context.getBean(TestAccountFactory.class).create(BigDecimal.TEN).getAccountId();
+            Integer branchId = context.getBean(BranchService.class)
+                    .createBranch(new BranchDTO(null, "Load", "1 Main St", null)).getBranchId();
+            URI dbBound = URI.create("http://localhost:" + port + "/accounts/" + accountId);
+            URI cached = URI.create("http://localhost:" + port + "/branches/" + branchId);
+            return drive(dbBound, cached);
+        } finally {
+            context.close();
+        }
+    }
+
+    private Result drive(URI dbBound, URI cached) throws Exception {
+        Result result = new Result();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                boolean useDb = i % 2 == 0;
+                running.add(clients.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(useDb ? dbBound : cached).GET().build();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                result.errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            result.errors.incrementAndGet();
+                        }
+                        (useDb ? result.dbBound : result.cached).add(System.nanoTime() - start);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+        return result;
+    }
+
+    // Holds every connection for DB_LATENCY before use, like a slow database would
+    private static final class SlowConnections implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(DB_LATENCY);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+    }
+
+    private static final class Result {
+        final Latencies dbBound = new Latencies();
+        final Latencies cached = new Latencies();
+        final AtomicInteger errors = new AtomicInteger();
+
+        void appendTo(StringBuilder table, String mode) {
+            dbBound.appendTo(table, mode, "db-bound");
+            cached.appendTo(table, mode, "cached");
+        }
+    }
+
+    private static final class Latencies {
+        private long[] nanos = new long[1 << 16];
+        private int count;
+
+        synchronized void add(long value) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+        }
+
+        synchronized void appendTo(StringBuilder table, String mode, String endpoint) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            table.append(String.format("%-9s %-10s %10.0f %10.1f %10.1f%n", mode, endpoint,
+                    count / (double) RUN_TIME.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99)));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
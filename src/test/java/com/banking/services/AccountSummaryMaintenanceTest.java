@@ -0,0 +1,87 @@
+package com.banking.services;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.AccountSummaryDTO;
+import com.banking.dto.BranchDTO;
+import com.banking.dto.CustomerDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AccountSummaryMaintenanceTest {
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void summaryFollowsEveryWriteToItsSources() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        BranchDTO branch = branchService.createBranch(new BranchDTO(null, "North " + suffix, "1 Main St", null));
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        customer.setEmail(suffix + "@example.com");
+        customer = customerService.createCustomer(customer);
+
+        AccountDTO account = accountService.createAccount(new AccountDTO(null, customer.getCustomerId(),
+                branch.getBranchId(), Account.AccountType.SAVINGS, "SUM" + suffix, new BigDecimal("10.00"), null));
+        Integer accountId = account.getAccountId();
+
+        AccountSummaryDTO summary = accountSummaryService.getAccountSummaryById(accountId);
+        assertEquals(customer.getCustomerId(), summary.getCustomerId());
+        assertEquals("North " + suffix, summary.getBranchName());
+        assertEquals(0, new BigDecimal("10.00").compareTo(summary.getBalance()));
+
+        transactionService.deposit(request(accountId, null, TransactionType.DEPOSIT, "5.00"));
+        assertEquals(0, new BigDecimal("15.00")
+                .compareTo(accountSummaryService.getAccountSummaryById(accountId).getBalance()));
+
+        CustomerDTO rename = new CustomerDTO();
+        rename.setFirstName("Grace");
+        customerService.updateCustomer(customer.getCustomerId(), rename);
+        branchService.updateBranch(branch.getBranchId(), new BranchDTO(null, "South " + suffix, "2 Main St", null));
+        account.setAccountType(Account.AccountType.CHECKING);
+        account.setBalance(BigDecimal.ZERO);
+        accountService.updateAccount(accountId, account);
+
+        List<AccountSummaryDTO> byCustomer = accountSummaryService.getAccountSummariesByCustomerId(customer.getCustomerId());
+        assertEquals(1, byCustomer.size());
+        summary = byCustomer.get(0);
+        assertEquals("Grace", summary.getFirstName());
+        assertEquals("Lovelace", summary.getLastName());
+        assertEquals("South " + suffix, summary.getBranchName());
+        assertEquals(Account.AccountType.CHECKING, summary.getAccountType());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getBalance()));
+
+        Integer emptyAccountId = accountService.createAccount(new AccountDTO(null, customer.getCustomerId(),
+                branch.getBranchId(), Account.AccountType.SAVINGS, "EMP" + suffix, BigDecimal.ZERO, null)).getAccountId();
+        assertEquals(2, accountSummaryService.getAccountSummariesByCustomerId(customer.getCustomerId()).size());
+        accountService.deleteAccount(emptyAccountId);
+        assertThrows(ResourceNotFoundException.class,
+                () -> accountSummaryService.getAccountSummaryById(emptyAccountId));
+    }
+}
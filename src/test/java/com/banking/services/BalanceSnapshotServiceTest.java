@@ -0,0 +1,129 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.BalanceSnapshot;
+import com.banking.repository.BalanceSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BalanceSnapshotServiceTest {
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void answersFromCurrentBalanceOrNearestSnapshotWithTheSameResult() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        Account other = accounts.create(BigDecimal.ZERO);
+        LocalDate first = LocalDate.now().minusDays(3);
+
+        backdate(transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "100.00")),
+                first.atTime(10, 0));
+        backdate(transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "50.00")),
+                first.plusDays(1).atTime(9, 0));
+        backdate(transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "30.00")),
+                first.plusDays(1).atTime(15, 0));
+        transactionService.transfer(request(account, other, TransactionType.TRANSFER, "20.00"));
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE transaction_type = 'TRANSFER' "
+                        + "AND account_id IN (?, ?)", Timestamp.valueOf(first.plusDays(2).atTime(12, 0)),
+                account.getAccountId(), other.getAccountId());
+
+        // No snapshots yet: walks back from the current balance
+        assertBalances(account, other, first);
+
+        balanceSnapshotService.snapshot(first);
+        balanceSnapshotService.snapshot(first.plusDays(1));
+        assertEquals(new BigDecimal("100.00"), snapshot(account, first));
+        assertEquals(new BigDecimal("120.00"), snapshot(account, first.plusDays(1)));
+        assertEquals(new BigDecimal("0.00"), snapshot(other, first.plusDays(1)));
+
+        // Re-running a day rewrites its rows; queries now start from the snapshots
+        balanceSnapshotService.snapshot(first.plusDays(1));
+        assertBalances(account, other, first);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> balanceSnapshotService.getBalanceAt(account.getAccountId(), LocalDateTime.now().plusDays(1)));
+    }
+
+    // Rows from before the direction column are signed by type on both paths: the deposit credits, the
+    // withdrawal debits and the transfer legs count as zero, so snapshots and the walk back agree
+    @Test
+    void signsLegacyRowsWithoutADirectionTheSameWayOnEveryPath() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        Account other = accounts.create(BigDecimal.ZERO);
+        LocalDate first = LocalDate.now().minusDays(3);
+
+        backdate(transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "100.00")),
+                first.atTime(10, 0));
+        backdate(transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "30.00")),
+                first.plusDays(1).atTime(15, 0));
+        transactionService.transfer(request(account, other, TransactionType.TRANSFER, "20.00"));
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE transaction_type = 'TRANSFER' "
+                        + "AND account_id IN (?, ?)", Timestamp.valueOf(first.plusDays(2).atTime(12, 0)),
+                account.getAccountId(), other.getAccountId());
+        jdbcTemplate.update("UPDATE transactions SET direction = NULL WHERE account_id IN (?, ?)",
+                account.getAccountId(), other.getAccountId());
+
+        assertEquals(new BigDecimal("80.00"), balanceAt(account, first.atTime(23, 0)));
+        assertEquals(new BigDecimal("50.00"), balanceAt(account, first.plusDays(1).atTime(23, 0)));
+        assertEquals(new BigDecimal("20.00"), balanceAt(other, first.plusDays(1).atTime(23, 0)));
+
+        balanceSnapshotService.snapshot(first);
+        balanceSnapshotService.snapshot(first.plusDays(1));
+        assertEquals(new BigDecimal("80.00"), snapshot(account, first));
+        assertEquals(new BigDecimal("50.00"), snapshot(account, first.plusDays(1)));
+        assertEquals(new BigDecimal("20.00"), snapshot(other, first.plusDays(1)));
+        assertEquals(new BigDecimal("50.00"), balanceAt(account, first.plusDays(2).atTime(13, 0)));
+    }
+
+    private void assertBalances(Account account, Account other, LocalDate first) {
+        assertEquals(new BigDecimal("0.00"), balanceAt(account, first.atTime(9, 59)));
+        assertEquals(new BigDecimal("100.00"), balanceAt(account, first.atTime(10, 0)));
+        assertEquals(new BigDecimal("150.00"), balanceAt(account, first.plusDays(1).atTime(12, 0)));
+        assertEquals(new BigDecimal("120.00"), balanceAt(account, first.plusDays(1).atTime(23, 0)));
+        assertEquals(new BigDecimal("100.00"), balanceAt(account, first.plusDays(2).atTime(13, 0)));
+        assertEquals(new BigDecimal("0.00"), balanceAt(other, first.plusDays(2).atTime(11, 0)));
+        assertEquals(new BigDecimal("20.00"), balanceAt(other, first.plusDays(2).atTime(13, 0)));
+    }
+
+    private BigDecimal balanceAt(Account account, LocalDateTime at) {
+        return balanceSnapshotService.getBalanceAt(account.getAccountId(), at).getBalance();
+    }
+
+    private BigDecimal snapshot(Account account, LocalDate day) {
+        return balanceSnapshotRepository.findById(new BalanceSnapshot.Key(account.getAccountId(), day))
+                .orElseThrow().getBalance().setScale(2);
+    }
+
+    private void backdate(TransactionDTO transaction, LocalDateTime date) {
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE transaction_id = ?",
+                Timestamp.valueOf(date), transaction.getTransactionId());
+    }
+}
@@ -0,0 +1,52 @@
+package com.banking.services;
+
+import com.banking.dto.BranchDTO;
+import com.banking.repository.BranchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class BranchServiceCacheTest {
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private BranchRepository branchRepository;
+
+    @Test
+    void readsAreServedFromCacheAndWritesKeepItCurrent() {
+        BranchDTO created = branchService.createBranch(new BranchDTO(null, "Cached", "1 Main St", null));
+        Integer id = created.getBranchId();
+
+        branchService.getBranchById(id);
+        branchService.getBranchById(id);
+        branchService.getAllBranches();
+        branchService.getAllBranches();
+        verify(branchRepository, times(1)).findById(id);
+        verify(branchRepository, times(1)).findAll();
+
+        branchService.updateBranch(id, new BranchDTO(null, "Renamed", "2 Main St", null));
+        assertEquals("Renamed", branchService.getBranchById(id).getBranchName());
+        assertEquals("Renamed", branchService.getAllBranches().stream()
+                .filter(branch -> branch.getBranchId().equals(id))
+                .findFirst().orElseThrow().getBranchName());
+        verify(branchRepository, times(2)).findById(id);
+        verify(branchRepository, times(2)).findAll();
+
+        branchService.deleteBranch(id);
+        assertNull(cacheManager.getCache(BranchService.BRANCH_CACHE).get(id));
+        assertNull(cacheManager.getCache(BranchService.BRANCH_LIST_CACHE).get("all"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.BranchDailyStatsDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BranchStatsAggregatorTest {
+
+    @Autowired
+    private BranchStatsAggregator branchStatsAggregator;
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollsUpCommittedTransactionsPerBranchDayAndTypeAndRebuildsTheSame() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        Account other = accounts.create(BigDecimal.ZERO);
+        LocalDate today = LocalDate.now();
+
+        transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "10.00"));
+        transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "30.00"));
+        transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "5.00"));
+        transactionService.transfer(request(account, other, TransactionType.TRANSFER, "7.00"));
+        transactionBatchService.ingest(List.of(request(account, null, TransactionType.DEPOSIT, "2.00")));
+        // Rolled back, so never counted
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(other, null, TransactionType.WITHDRAWAL, "100.00")));
+
+        branchStatsAggregator.flush();
+        assertStats(account, other, today);
+        assertThrows(IllegalArgumentException.class, () -> branchStatsAggregator.rebuild(today));
+
+        // The same rows a day earlier: the recount gives the same result as the increments did
+        LocalDate yesterday = today.minusDays(1);
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE account_id IN (?, ?)",
+                Timestamp.valueOf(yesterday.atTime(12, 0)), account.getAccountId(), other.getAccountId());
+        branchStatsAggregator.rebuild(yesterday);
+        assertStats(account, other, yesterday);
+    }
+
+    // A delta for a past day that was still pending when the recount ran must not be added on top of it
+    @Test
+    void dropsDeltasForDaysTheRecountOwns() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        TransactionDTO deposit = transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "10.00"));
+        branchStatsAggregator.flush();
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE transaction_id = ?",
+                Timestamp.valueOf(yesterday.atTime(23, 59)), deposit.getTransactionId());
+        branchStatsAggregator.rebuild(yesterday);
+
+        branchStatsAggregator.onTransactionRecorded(new TransactionRecordedEvent(deposit.getTransactionId(),
+                account.getAccountId(), TransactionType.DEPOSIT, TransactionDirection.CREDIT, new BigDecimal("10.00"),
+                yesterday.atTime(23, 59)));
+        branchStatsAggregator.flush();
+
+        List<BranchDailyStatsDTO> stats = branchService.getStats(account.getBranch().getBranchId(), yesterday, yesterday);
+        assertEquals(1, stats.size());
+        assertRow(stats.get(0), TransactionType.DEPOSIT, 1, "10.00", "10.00", "10.00");
+    }
+
+    private void assertStats(Account account, Account other, LocalDate day) {
+        List<BranchDailyStatsDTO> stats = branchService.getStats(account.getBranch().getBranchId(), day, day);
+        assertEquals(3, stats.size());
+        assertRow(stats.get(0), TransactionType.DEPOSIT, 3, "42.00", "2.00", "30.00");
+        assertRow(stats.get(1), TransactionType.TRANSFER, 1, "7.00", "7.00", "7.00");
+        assertRow(stats.get(2), TransactionType.WITHDRAWAL, 1, "5.00", "5.00", "5.00");
+
+        List<BranchDailyStatsDTO> otherStats = branchService.getStats(other.getBranch().getBranchId(), day, day);
+        assertEquals(1, otherStats.size());
+        assertRow(otherStats.get(0), TransactionType.TRANSFER, 1, "7.00", "7.00", "7.00");
+    }
+
+    private void assertRow(BranchDailyStatsDTO row, TransactionType type, long count, String total, String min,
+                           String max) {
+        assertEquals(type, row.getTransactionType());
+        assertEquals(count, row.getCount());
+        assertEquals(new BigDecimal(total), row.getTotalAmount().setScale(2));
+        assertEquals(new BigDecimal(min), row.getMinAmount().setScale(2));
+        assertEquals(new BigDecimal(max), row.getMaxAmount().setScale(2));
+    }
+}
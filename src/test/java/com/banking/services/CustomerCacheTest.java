@@ -0,0 +1,64 @@
+package com.banking.services;
+
+import com.banking.dto.CustomerDTO;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class CustomerCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @SpyBean
+    private CustomerRepository customerRepository;
+
+    @Test
+    void lookupsByEitherKeyHitCacheUntilTheCustomerChanges() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String oldEmail = "old-" + suffix + "@example.com";
+        String newEmail = "new-" + suffix + "@example.com";
+        Integer id = customerService.createCustomer(customer("Ada", oldEmail)).getCustomerId();
+        clearInvocations(customerRepository);
+
+        customerService.getCustomerById(id);
+        customerService.getCustomerById(id);
+        assertEquals(id, customerService.getCustomerByEmail(oldEmail).getCustomerId());
+        verify(customerRepository, times(1)).findById(id);
+        verify(customerRepository, never()).findByEmail(anyString());
+
+        customerService.updateCustomer(id, customer("Grace", newEmail));
+        clearInvocations(customerRepository);
+
+        assertEquals("Grace", customerService.getCustomerById(id).getFirstName());
+        assertEquals(newEmail, customerService.getCustomerByEmail(newEmail).getEmail());
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerByEmail(oldEmail));
+        verify(customerRepository, times(1)).findById(id);
+
+        customerService.deleteCustomer(id);
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerById(id));
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerByEmail(newEmail));
+    }
+
+    private CustomerDTO customer(String firstName, String email) {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setFirstName(firstName);
+        dto.setLastName("Lovelace");
+        dto.setEmail(email);
+        return dto;
+    }
+}
@@ -0,0 +1,230 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "banking.group-commit.enabled=true",
+        "banking.group-commit.max-batch=64",
+        "banking.group-commit.max-delay-ms=20"
+})
+class GroupCommitPipelineTest {
+
+    private static final int THREADS = 32;
+    private static final int DEPOSITS = 300;
+
+    @Autowired
+    private GroupCommitPipeline groupCommitPipeline;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+
+    @Test
+    void refusalsOnlyFailTheirOwnItem() throws Exception {
+        Account first = accounts.create(new BigDecimal("10.00"));
+        Account second = accounts.create(new BigDecimal("10.00"));
+
+        // Queued back to back, so they share one batch
+        CompletableFuture<TransactionDTO> deposit = groupCommitPipeline.submit(request(first, null, TransactionType.DEPOSIT, "5.00"));
+        CompletableFuture<TransactionDTO> overdraft = groupCommitPipeline.submit(request(second, null, TransactionType.WITHDRAWAL, "10.01"));
+        CompletableFuture<TransactionDTO> missing = groupCommitPipeline.submit(
+                request(Integer.MAX_VALUE, null, TransactionType.DEPOSIT, "1.00"));
+        CompletableFuture<TransactionDTO> withdrawal = groupCommitPipeline.submit(request(second, null, TransactionType.WITHDRAWAL, "10.00"));
+
+        assertNotNull(deposit.get().getTransactionId());
+        assertInstanceOf(IllegalArgumentException.class, failure(overdraft));
+        assertInstanceOf(ResourceNotFoundException.class, failure(missing));
+        assertTrue(transactionRepository.existsById(withdrawal.get().getTransactionId()));
+        assertEquals(new BigDecimal("15.00"), accounts.balanceOf(first));
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(second));
+    }
+
+    // The key row goes in with the batch, so a key another instance already committed fails only its item
+    @Test
+    void idempotencyKeysCommitWithTheirItem() throws Exception {
+        Account account = accounts.create(BigDecimal.ZERO);
+        String taken = UUID.randomUUID().toString();
+        String fresh = UUID.randomUUID().toString();
+        idempotencyRecordRepository.claim(taken, "hash", LocalDateTime.now());
+
+        TransactionDTO deposit = request(account, null, TransactionType.DEPOSIT, "3.00");
+        CompletableFuture<TransactionDTO> duplicate = groupCommitPipeline.submit(deposit, Money.of(deposit.getAmount()),
+                new IdempotencyClaim(taken, "hash"));
+        CompletableFuture<TransactionDTO> first = groupCommitPipeline.submit(deposit, Money.of(deposit.getAmount()),
+                new IdempotencyClaim(fresh, "hash"));
+
+        assertInstanceOf(DataIntegrityViolationException.class, failure(duplicate));
+        assertEquals(first.get().getTransactionId(),
+                idempotencyRecordRepository.findById(fresh).orElseThrow().getTransactionId());
+        assertEquals(new BigDecimal("3.00"), accounts.balanceOf(account));
+    }
+
+    @Test
+    void concurrentCallersShareCommitsWithoutLosingUpdates() throws Exception {
+        Account account = accounts.create(BigDecimal.ZERO);
+        long transactionsBefore = transactionRepository.count();
+
+        List<Callable<TransactionDTO>> calls = new ArrayList<>();
+        for (int i = 0; i < DEPOSITS; i++) {
+            calls.add(() -> transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "1.00")));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<TransactionDTO> result : executor.invokeAll(calls)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(new BigDecimal(DEPOSITS + ".00"), accounts.balanceOf(account));
+        assertEquals(transactionsBefore + DEPOSITS, transactionRepository.count());
+        assertTrue(meterRegistry.get("banking.group_commit.batch_size").summary().max() > 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "1000.00")));
+    }
+
+    @Test
+    void aTimedOutRequestIsWithdrawnBeforeAnyBatchAppliesIt() throws Exception {
+        Account gate = accounts.create(BigDecimal.ZERO);
+        Account late = accounts.create(new BigDecimal("50.00"));
+        CoordinatorGate coordinatorGate = new CoordinatorGate(gate.getAccountId(), null);
+        Object timeoutMs = ReflectionTestUtils.getField(groupCommitPipeline, "timeoutMs");
+        eventMulticaster.addApplicationListener(coordinatorGate);
+        try {
+            CompletableFuture<TransactionDTO> held = groupCommitPipeline.submit(request(gate, null, TransactionType.DEPOSIT, "1.00"));
+            assertTrue(coordinatorGate.entered.await(10, TimeUnit.SECONDS));
+
+            ReflectionTestUtils.setField(groupCommitPipeline, "timeoutMs", 200L);
+            IllegalStateException timedOut = assertThrows(IllegalStateException.class,
+                    () -> transactionService.withdraw(request(late, null, TransactionType.WITHDRAWAL, "20.00")));
+            assertTrue(timedOut.getMessage().contains("not applied"));
+            ReflectionTestUtils.setField(groupCommitPipeline, "timeoutMs", timeoutMs);
+
+            coordinatorGate.release.countDown();
+            held.get(10, TimeUnit.SECONDS);
+            // Queued behind the withdrawn item, so once this commits the coordinator has passed it
+            transactionService.deposit(request(late, null, TransactionType.DEPOSIT, "5.00"));
+            assertEquals(new BigDecimal("55.00"), accounts.balanceOf(late));
+        } finally {
+            coordinatorGate.release.countDown();
+            eventMulticaster.removeApplicationListener(coordinatorGate);
+            ReflectionTestUtils.setField(groupCommitPipeline, "timeoutMs", timeoutMs);
+        }
+    }
+
+    @Test
+    void aBrokenSharedTransactionFallsBackToOneTransactionPerItem() throws Exception {
+        Account gate = accounts.create(BigDecimal.ZERO);
+        Account healthy = accounts.create(new BigDecimal("10.00"));
+        Account poisoned = accounts.create(new BigDecimal("10.00"));
+        CoordinatorGate coordinatorGate = new CoordinatorGate(gate.getAccountId(), poisoned.getAccountId());
+        eventMulticaster.addApplicationListener(coordinatorGate);
+        try {
+            CompletableFuture<TransactionDTO> held = groupCommitPipeline.submit(request(gate, null, TransactionType.DEPOSIT, "1.00"));
+            assertTrue(coordinatorGate.entered.await(10, TimeUnit.SECONDS));
+            // Queued while the coordinator is busy, so all three land in the next batch
+            CompletableFuture<TransactionDTO> deposit = groupCommitPipeline.submit(request(healthy, null, TransactionType.DEPOSIT, "5.00"));
+            CompletableFuture<TransactionDTO> rejected = groupCommitPipeline.submit(request(poisoned, null, TransactionType.DEPOSIT, "7.00"));
+            CompletableFuture<TransactionDTO> withdrawal = groupCommitPipeline.submit(request(healthy, null, TransactionType.WITHDRAWAL, "1.00"));
+            coordinatorGate.release.countDown();
+            held.get(10, TimeUnit.SECONDS);
+
+            assertTrue(transactionRepository.existsById(deposit.get(10, TimeUnit.SECONDS).getTransactionId()));
+            assertTrue(transactionRepository.existsById(withdrawal.get(10, TimeUnit.SECONDS).getTransactionId()));
+            assertEquals("Listener rejected the row", failure(rejected).getMessage());
+            assertEquals(new BigDecimal("14.00"), accounts.balanceOf(healthy));
+            assertEquals(new BigDecimal("10.00"), accounts.balanceOf(poisoned));
+        } finally {
+            coordinatorGate.release.countDown();
+            eventMulticaster.removeApplicationListener(coordinatorGate);
+        }
+    }
+
+    private Throwable failure(CompletableFuture<TransactionDTO> future) {
+        return assertThrows(ExecutionException.class, future::get).getCause();
+    }
+
+    // Runs inside the coordinator's batch transaction: holds the coordinator on the gate account's row
+    // until released, and throws for the poisoned account's row, breaking the whole batch
+    private static final class CoordinatorGate implements ApplicationListener<ApplicationEvent> {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        private final Integer gateAccountId;
+        private final Integer poisonedAccountId;
+
+        CoordinatorGate(Integer gateAccountId, Integer poisonedAccountId) {
+            this.gateAccountId = gateAccountId;
+            this.poisonedAccountId = poisonedAccountId;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            if (!(event instanceof PayloadApplicationEvent<?> payload)
+                    || !(payload.getPayload() instanceof TransactionRecordedEvent recorded)) {
+                return;
+            }
+            if (recorded.getAccountId().equals(gateAccountId)) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if (recorded.getAccountId().equals(poisonedAccountId)) {
+                throw new IllegalStateException("Listener rejected the row");
+            }
+        }
+    }
+}
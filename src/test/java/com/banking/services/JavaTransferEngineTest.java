@@ -0,0 +1,105 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class JavaTransferEngineTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_EACH_WAY = 1000;
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    // Calls the engine directly, bypassing AccountLocks, so only the database row locks keep A->B and
+    // B->A apart; taking them in the wrong order would surface here as deadlock or lock-timeout errors
+    @Test
+    void opposingTransfersNeitherDeadlockNorLoseMoney() throws Exception {
+        Account first = accounts.create(new BigDecimal("5000.00"));
+        Account second = accounts.create(new BigDecimal("5000.00"));
+        long transactionsBefore = transactionRepository.count();
+
+        List<Callable<Long>> transfers = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS_EACH_WAY; i++) {
+            transfers.add(() -> transfer(first, second, "1.00"));
+            transfers.add(() -> transfer(second, first, "2.00"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Long> result : executor.invokeAll(transfers)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(new BigDecimal("6000.00"), accounts.balanceOf(first));
+        assertEquals(new BigDecimal("4000.00"), accounts.balanceOf(second));
+        assertEquals(transactionsBefore + 2L * transfers.size(), transactionRepository.count());
+    }
+
+    @Test
+    void refusesTransferAboveBalanceWithoutWritingEitherLeg() {
+        Account first = accounts.create(new BigDecimal("10.00"));
+        Account second = accounts.create(BigDecimal.ZERO);
+        long transactionsBefore = transactionRepository.count();
+
+        assertThrows(IllegalStateException.class,
+                () -> transactionService.transfer(request(first, second, TransactionType.TRANSFER, "10.01")));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(first));
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(second));
+        assertEquals(transactionsBefore, transactionRepository.count());
+    }
+
+    // recordTransfer no longer looks the accounts up; the engine's locking read reports the missing one
+    @Test
+    void reportsAMissingAccountWithoutWritingEitherLeg() {
+        Account account = accounts.create(new BigDecimal("10.00"));
+        long transactionsBefore = transactionRepository.count();
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> transactionService.transfer(request(account.getAccountId(), -1, TransactionType.TRANSFER, "1.00")));
+        assertThrows(ResourceNotFoundException.class,
+                () -> transactionService.transfer(request(-1, account.getAccountId(), TransactionType.TRANSFER, "1.00")));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(account));
+        assertEquals(transactionsBefore, transactionRepository.count());
+    }
+
+    private Long transfer(Account from, Account to, String amount) {
+        return transactionTemplate.execute(status -> transferEngine.transfer(
+                from.getAccountId(), to.getAccountId(), Money.of(new BigDecimal(amount)), "Stress transfer"));
+    }
+}
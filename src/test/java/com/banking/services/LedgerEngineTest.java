@@ -0,0 +1,274 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.AccountDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Flushing is left to the test (the interval is an hour) and WAL segments are tiny so they roll
+@SpringBootTest(properties = {
+        "banking.ledger.enabled=true",
+        "banking.ledger.shards=2",
+        "banking.ledger.wal-segment-bytes=4096",
+        "banking.ledger.flush-interval-ms=3600000"
+})
+class LedgerEngineTest {
+
+    private static final int DEPOSITS = 500;
+
+    @DynamicPropertySource
+    static void walDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("ledger-wal").toString();
+        registry.add("banking.ledger.wal-directory", () -> directory);
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recoversAcknowledgedOperationsFromTheWalAndFlushesThem() {
+        Account first = accounts.create(new BigDecimal("100.00"));
+        Account second = accounts.create(BigDecimal.ZERO);
+        Account third = accounts.create(BigDecimal.ZERO);
+        long transactionsBefore = transactionRepository.count();
+
+        for (int i = 0; i < DEPOSITS; i++) {
+            transactionService.deposit(request(first, null, TransactionType.DEPOSIT, "1.00"));
+        }
+        transactionService.transfer(request(first, second, TransactionType.TRANSFER, "50.00"));
+        transactionService.transfer(request(first, third, TransactionType.TRANSFER, "25.00"));
+        transactionService.withdraw(request(third, null, TransactionType.WITHDRAWAL, "5.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(second, null, TransactionType.WITHDRAWAL, "50.01")));
+        TransactionDTO missing = request(first, null, TransactionType.DEPOSIT, "1.00");
+        missing.setAccountId(Integer.MAX_VALUE);
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.deposit(missing));
+
+        // Crash before anything reaches MySQL
+        ledgerEngine.halt();
+        assertEquals(new BigDecimal("100.00"), accounts.balanceOf(first));
+        assertEquals(transactionsBefore, transactionRepository.count());
+
+        ledgerEngine.start();
+        ledgerEngine.flush();
+
+        assertEquals(new BigDecimal("525.00"), accounts.balanceOf(first));
+        assertEquals(new BigDecimal("50.00"), accounts.balanceOf(second));
+        assertEquals(new BigDecimal("20.00"), accounts.balanceOf(third));
+        assertEquals(transactionsBefore + DEPOSITS + 4 + 1, transactionRepository.count());
+
+        // Recovered balances keep enforcing funds, and a second restart replays nothing twice
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(third, null, TransactionType.WITHDRAWAL, "20.01")));
+        transactionService.withdraw(request(third, null, TransactionType.WITHDRAWAL, "20.00"));
+        ledgerEngine.halt();
+        ledgerEngine.start();
+        ledgerEngine.flush();
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(third));
+        assertEquals(new BigDecimal("525.00"), accounts.balanceOf(first));
+    }
+
+    // A and C land on one shard, B and D on the other; each shard's second transfer spends a credit that
+    // the other shard's first transfer carries, so neither shard's records can reach MySQL on their own
+    @Test
+    void creditsFromAnotherShardFlushTogetherWithTheDebitsThatSpendThem() {
+        Account a = accounts.create(BigDecimal.ZERO);
+        Account b = accounts.create(BigDecimal.ZERO);
+        Account c = accounts.create(new BigDecimal("10.00"));
+        Account d = accounts.create(new BigDecimal("10.00"));
+        assertEquals(Math.floorMod(a.getAccountId(), 2), Math.floorMod(c.getAccountId(), 2));
+        assertEquals(Math.floorMod(b.getAccountId(), 2), Math.floorMod(d.getAccountId(), 2));
+        assertNotEquals(Math.floorMod(a.getAccountId(), 2), Math.floorMod(b.getAccountId(), 2));
+
+        transactionService.transfer(request(c, b, TransactionType.TRANSFER, "10.00"));
+        transactionService.transfer(request(d, a, TransactionType.TRANSFER, "10.00"));
+        transactionService.transfer(request(a, c, TransactionType.TRANSFER, "10.00"));
+        transactionService.transfer(request(b, d, TransactionType.TRANSFER, "10.00"));
+        ledgerEngine.flush();
+
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(a));
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(b));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(c));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(d));
+        transactionService.deposit(request(a, null, TransactionType.DEPOSIT, "1.00"));
+        ledgerEngine.flush();
+        assertEquals(new BigDecimal("1.00"), accounts.balanceOf(a));
+    }
+
+    @Test
+    void idempotencyKeysSurviveACrashInTheWalAndAreWrittenByTheFlush() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        String key = UUID.randomUUID().toString();
+        TransactionDTO deposit = transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "12.00"),
+                new IdempotencyClaim(key, "hash"));
+
+        ledgerEngine.halt();
+        ledgerEngine.start();
+        assertFalse(idempotencyRecordRepository.existsById(key));
+        assertEquals(deposit.getTransactionId(), ledgerEngine.unflushedRecord(key).orElseThrow().transactionId);
+
+        ledgerEngine.flush();
+        assertTrue(ledgerEngine.unflushedRecord(key).isEmpty());
+        assertEquals(deposit.getTransactionId(), idempotencyRecordRepository.findById(key).orElseThrow().getTransactionId());
+        assertEquals(new BigDecimal("12.00"), accounts.balanceOf(account));
+    }
+
+    @Test
+    void aTimedOutOperationIsWithdrawnBeforeItsShardAppliesIt() throws Exception {
+        Account account = accounts.create(new BigDecimal("10.00"));
+        LedgerShard shard = ReflectionTestUtils.invokeMethod(ledgerEngine, "shardOf", account.getAccountId());
+        CountDownLatch release = new CountDownLatch(1);
+        Object timeoutMs = ReflectionTestUtils.getField(ledgerEngine, "timeoutMs");
+        ReflectionTestUtils.setField(ledgerEngine, "timeoutMs", 200L);
+        try {
+            // Keep the shard thread busy so the deposit stays queued past its timeout
+            CompletableFuture<Object> busy = shard.submit(owner -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            assertThrows(IllegalStateException.class,
+                    () -> transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "5.00")));
+            release.countDown();
+            busy.get();
+        } finally {
+            release.countDown();
+            ReflectionTestUtils.setField(ledgerEngine, "timeoutMs", timeoutMs);
+        }
+
+        transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "10.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "0.01")));
+        ledgerEngine.flush();
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(account));
+    }
+
+    @Test
+    void aRecordTheWalRefusesLeavesBalancesUntouched() {
+        Account from = accounts.create(new BigDecimal("10.00"));
+        Account to = accounts.create(BigDecimal.ZERO);
+        TransactionDTO deposit = request(from, null, TransactionType.DEPOSIT, "5.00");
+        deposit.setDescription("x".repeat(2000));
+        TransactionDTO transfer = request(from, to, TransactionType.TRANSFER, "4.00");
+        transfer.setDescription("x".repeat(2000));
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.deposit(deposit));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer(transfer));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(from, null, TransactionType.WITHDRAWAL, "10.01")));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(to, null, TransactionType.WITHDRAWAL, "0.01")));
+        transactionService.withdraw(request(from, null, TransactionType.WITHDRAWAL, "10.00"));
+        ledgerEngine.flush();
+        assertEquals(new BigDecimal("0.00"), accounts.balanceOf(from));
+    }
+
+    @Test
+    void creditsThatWouldLeaveTheBalanceRangeAreRefused() {
+        Account full = accounts.create(new BigDecimal("9999999999999.00"));
+        Account source = accounts.create(new BigDecimal("10.00"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.deposit(request(full, null, TransactionType.DEPOSIT, "1.00")));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.transfer(request(source, full, TransactionType.TRANSFER, "1.00")));
+        transactionService.deposit(request(full, null, TransactionType.DEPOSIT, "0.99"));
+
+        ledgerEngine.flush();
+        assertEquals(new BigDecimal("9999999999999.99"), accounts.balanceOf(full));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(source));
+    }
+
+    @Test
+    void writersThatBypassTheLedgerAreRefused() {
+        Account account = accounts.create(new BigDecimal("10.00"));
+        AccountDTO edit = new AccountDTO(account.getAccountId(), null, null, account.getAccountType(), null,
+                new BigDecimal("99.00"), account.getStatus());
+
+        assertThrows(IllegalStateException.class,
+                () -> transactionBatchService.ingest(List.of(request(account, null, TransactionType.DEPOSIT, "1.00"))));
+        assertThrows(IllegalStateException.class, () -> accountService.updateAccount(account.getAccountId(), edit));
+        assertThrows(IllegalStateException.class, () -> accountService.deleteAccount(account.getAccountId()));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(account));
+    }
+
+    // A balance changed behind the ledger's back makes its flush fail on every attempt
+    @Test
+    void aBatchThatCanNeverFlushStallsTheLedger() {
+        Account account = accounts.create(new BigDecimal("10.00"));
+        Object maxAttempts = ReflectionTestUtils.getField(ledgerEngine, "flushMaxAttempts");
+        ReflectionTestUtils.setField(ledgerEngine, "flushMaxAttempts", 2);
+        try {
+            transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "10.00"));
+            jdbcTemplate.update("UPDATE accounts SET balance = 5.00 WHERE account_id = ?", account.getAccountId());
+
+            ledgerEngine.flush();
+            transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "1.00"));
+            ledgerEngine.flush();
+            IllegalStateException refused = assertThrows(IllegalStateException.class,
+                    () -> transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "1.00")));
+            assertTrue(refused.getMessage().contains("stalled"));
+            assertEquals(new BigDecimal("5.00"), accounts.balanceOf(account));
+        } finally {
+            ReflectionTestUtils.setField(ledgerEngine, "flushMaxAttempts", maxAttempts);
+            jdbcTemplate.update("UPDATE accounts SET balance = 10.00 WHERE account_id = ?", account.getAccountId());
+        }
+
+        // Once the cause is fixed, a restart replays the stalled records and flushes them
+        ledgerEngine.halt();
+        ledgerEngine.start();
+        ledgerEngine.flush();
+        assertEquals(new BigDecimal("1.00"), accounts.balanceOf(account));
+    }
+}
@@ -0,0 +1,42 @@
+package com.banking.services;
+
+import com.banking.dto.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LedgerWalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    // A crash between creating a segment and writing its first record leaves it zero-filled; the restarted
+    // shard rolls to the same name and must reuse it
+    @Test
+    void reusesASegmentLeftEmptyByACrash() throws IOException {
+        Files.write(directory.resolve("shard-0-1.wal"), new byte[SEGMENT_BYTES]);
+
+        LedgerWal wal = new LedgerWal(directory, 0, SEGMENT_BYTES);
+        assertEquals(0, wal.replay(0, record -> {}));
+        wal.append(record(1));
+        wal.append(record(2));
+        wal.close();
+
+        List<Long> replayed = new ArrayList<>();
+        assertEquals(2, new LedgerWal(directory, 0, SEGMENT_BYTES).replay(0, record -> replayed.add(record.sequence)));
+        assertEquals(List.of(1L, 2L), replayed);
+    }
+
+    private static LedgerRecord record(long sequence) {
+        return new LedgerRecord(sequence, TransactionType.DEPOSIT, sequence, 0, 1, 0, 100, 0, null, null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @Test
+    void convertsExactlyAndRefusesSubCentAndOutOfRangeAmounts() {
+        assertEquals(1999, Money.of(new BigDecimal("19.99")).cents());
+        assertEquals(500, Money.of(new BigDecimal("5")).cents());
+        assertEquals(new BigDecimal("0.30"), Money.of(new BigDecimal("0.10")).plus(Money.of(new BigDecimal("0.20")))
+                .toBigDecimal());
+        assertTrue(Money.of(new BigDecimal("1.00")).minus(Money.of(new BigDecimal("1.01"))).isNegative());
+
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.005")));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("10000000000000.00")));
+        Money max = Money.ofCents(Money.MAX_CENTS);
+        assertEquals(new BigDecimal("9999999999999.99"), max.toBigDecimal());
+        assertThrows(IllegalArgumentException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(IllegalArgumentException.class, () -> max.negate().minus(Money.ofCents(1)));
+
+        Money.checkAmount(new BigDecimal("9999999999999.99"));
+        Money.checkAmount(new BigDecimal("1.000"));
+        Money.checkAmount(new BigDecimal("1E+3"));
+        assertThrows(IllegalArgumentException.class, () -> Money.checkAmount(new BigDecimal("1.005")));
+        assertThrows(IllegalArgumentException.class, () -> Money.checkAmount(new BigDecimal("10000000000000")));
+    }
+}
@@ -0,0 +1,100 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class OptimisticRetryTest {
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // A deposit commits between our read and our flush, as when a balance edit races it; the lost
+    // version check re-runs the whole transaction, which then applies on top of the deposit
+    @Test
+    void retriesALostVersionCheckFromFreshStateAndCountsTheConflict() {
+        Account account = accounts.create(new BigDecimal("100.00"));
+        double conflictsBefore = count("banking.optimistic_lock.conflicts", "conflict_test");
+        AtomicInteger attempts = new AtomicInteger();
+
+        optimisticRetry.execute("conflict_test", () -> transactionTemplate.execute(status -> {
+            Account loaded = accountRepository.findById(account.getAccountId()).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                concurrentWrite(account.getAccountId(), "50.00");
+            }
+            loaded.setBalance(loaded.getBalance().add(new BigDecimal("10.00")));
+            return accountRepository.saveAndFlush(loaded);
+        }));
+
+        assertEquals(2, attempts.get());
+        assertEquals(new BigDecimal("160.00"), accounts.balanceOf(account));
+        assertEquals(conflictsBefore + 1, count("banking.optimistic_lock.conflicts", "conflict_test"));
+        assertEquals(0.0, count("banking.optimistic_lock.retries_exhausted", "conflict_test"));
+    }
+
+    @Test
+    void givesUpAfterTheLastAttemptAndCountsIt() {
+        Account account = accounts.create(new BigDecimal("100.00"));
+        double conflictsBefore = count("banking.optimistic_lock.conflicts", "exhausted_test");
+        double exhaustedBefore = count("banking.optimistic_lock.retries_exhausted", "exhausted_test");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> optimisticRetry.execute("exhausted_test",
+                () -> transactionTemplate.execute(status -> {
+                    attempts.incrementAndGet();
+                    Account loaded = accountRepository.findById(account.getAccountId()).orElseThrow();
+                    concurrentWrite(account.getAccountId(), "1.00");
+                    loaded.setBalance(BigDecimal.ZERO);
+                    return accountRepository.saveAndFlush(loaded);
+                })));
+
+        // banking.retry.max-attempts=5; every attempt lost, so none of them zeroed the balance
+        assertEquals(5, attempts.get());
+        assertEquals(new BigDecimal("105.00"), accounts.balanceOf(account));
+        assertEquals(conflictsBefore + 5, count("banking.optimistic_lock.conflicts", "exhausted_test"));
+        assertEquals(exhaustedBefore + 1, count("banking.optimistic_lock.retries_exhausted", "exhausted_test"));
+    }
+
+    // Runs on another thread so it commits on its own rather than joining the caller's transaction
+    private void concurrentWrite(Integer accountId, String amount) {
+        TransactionDTO deposit = request(accountId, null, TransactionType.DEPOSIT, amount);
+        CompletableFuture.supplyAsync(() -> transactionService.deposit(deposit)).join();
+    }
+
+    private double count(String name, String operation) {
+        Counter counter = meterRegistry.find(name).tag("operation", operation).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,166 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.OutboxEventDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionDirection;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+
+    @Test
+    void relaysEventsInPerAccountOrderAndRedeliversAfterASinkFailure() {
+        Account first = accounts.create(BigDecimal.ZERO);
+        Account second = accounts.create(BigDecimal.ZERO);
+        Set<Integer> ours = Set.of(first.getAccountId(), second.getAccountId());
+
+        List<OutboxEventDTO> delivered = new CopyOnWriteArrayList<>();
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        ApplicationListener<ApplicationEvent> consumer = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof OutboxEventDTO outboxEvent
+                    && ours.contains(outboxEvent.getAccountId())) {
+                if (failNext.getAndSet(false)) {
+                    throw new IllegalStateException("Consumer unavailable");
+                }
+                delivered.add(outboxEvent);
+            }
+        };
+        eventMulticaster.addApplicationListener(consumer);
+        try {
+            TransactionDTO deposit = transactionService.deposit(request(first, null, TransactionType.DEPOSIT, "100.00"));
+            TransactionDTO withdrawal = transactionService.withdraw(request(first, null, TransactionType.WITHDRAWAL, "30.00"));
+            TransactionDTO transfer = transactionService.transfer(request(first, second, TransactionType.TRANSFER, "20.00"));
+            assertEquals(4, pendingFor(ours));
+
+            // The failed batch stays in the outbox and goes out whole on the next attempt
+            assertThrows(IllegalStateException.class, this::drain);
+            assertEquals(4, pendingFor(ours));
+            drain();
+
+            assertEquals(0, pendingFor(ours));
+            List<OutboxEventDTO> firstEvents = delivered.stream()
+                    .filter(event -> event.getAccountId().equals(first.getAccountId()))
+                    .toList();
+            assertEquals(List.of(deposit.getTransactionId(), withdrawal.getTransactionId(), transfer.getTransactionId()),
+                    firstEvents.stream().map(OutboxEventDTO::getTransactionId).toList());
+            assertEquals(List.of(TransactionDirection.CREDIT, TransactionDirection.DEBIT, TransactionDirection.DEBIT),
+                    firstEvents.stream().map(OutboxEventDTO::getDirection).toList());
+            assertTrue(firstEvents.get(0).getEventId() < firstEvents.get(1).getEventId()
+                    && firstEvents.get(1).getEventId() < firstEvents.get(2).getEventId());
+
+            List<OutboxEventDTO> secondEvents = delivered.stream()
+                    .filter(event -> event.getAccountId().equals(second.getAccountId()))
+                    .toList();
+            assertEquals(1, secondEvents.size());
+            assertEquals(TransactionType.TRANSFER, secondEvents.get(0).getTransactionType());
+            assertEquals(TransactionDirection.CREDIT, secondEvents.get(0).getDirection());
+            assertEquals(0, new BigDecimal("20.00").compareTo(secondEvents.get(0).getAmount()));
+            assertFalse(failNext.get());
+        } finally {
+            eventMulticaster.removeApplicationListener(consumer);
+        }
+    }
+
+    // While a batch is out at the sink, its rows stay locked but new events can still be written
+    @Test
+    void writersAreNotBlockedWhileABatchIsBeingPublished() throws Exception {
+        Account account = accounts.create(BigDecimal.ZERO);
+        transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "1.00"));
+
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger isolation = new AtomicInteger(-1);
+        ApplicationListener<ApplicationEvent> slowConsumer = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof OutboxEventDTO outboxEvent
+                    && outboxEvent.getAccountId().equals(account.getAccountId())
+                    && publishing.getCount() > 0) {
+                isolation.set(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel());
+                publishing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        eventMulticaster.addApplicationListener(slowConsumer);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> relaying = executor.submit(this::drain);
+            assertTrue(publishing.await(10, TimeUnit.SECONDS));
+            assertEquals(Connection.TRANSACTION_READ_COMMITTED, isolation.get());
+
+            transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "2.00"));
+            release.countDown();
+            relaying.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            eventMulticaster.removeApplicationListener(slowConsumer);
+        }
+        drain();
+        assertEquals(0, pendingFor(Set.of(account.getAccountId())));
+    }
+
+    // Events written by other tests may be queued ahead of ours
+    private void drain() {
+        int relayed;
+        do {
+            relayed = outboxRelay.relayBatch();
+        } while (relayed > 0);
+    }
+
+    private int pendingFor(Set<Integer> accountIds) {
+        return accountIds.stream()
+                .mapToInt(id -> jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM outbox_events WHERE account_id = ?", Integer.class, id))
+                .sum();
+    }
+}
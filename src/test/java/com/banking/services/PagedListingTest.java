@@ -0,0 +1,102 @@
+package com.banking.services;
+
+import com.banking.dto.AccountDTO;
+import com.banking.dto.AccountSummaryDTO;
+import com.banking.dto.BranchDTO;
+import com.banking.dto.CustomerDTO;
+import com.banking.dto.PageDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PagedListingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void listsArePagedFilteredAndSortedInTheDatabase() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Integer branchId = branchService.createBranch(new BranchDTO(null, "Paged " + suffix, "1 Main St", null))
+                .getBranchId();
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName("Ada");
+        customer.setLastName("Paged" + suffix);
+        customer.setEmail(suffix + "@example.com");
+        Integer customerId = customerService.createCustomer(customer).getCustomerId();
+
+        String[] balances = {"10.00", "20.00", "30.00", "40.00", "500.00"};
+        Integer firstAccountId = null;
+        for (int i = 0; i < balances.length; i++) {
+            AccountDTO account = accountService.createAccount(new AccountDTO(null, customerId, branchId,
+                    i == 4 ? Account.AccountType.CHECKING : Account.AccountType.SAVINGS,
+                    "PG" + i + suffix, new BigDecimal(balances[i]), null));
+            if (firstAccountId == null) {
+                firstAccountId = account.getAccountId();
+            }
+        }
+
+        PageDTO<AccountDTO> first = accountService.getAccounts(null, Account.AccountType.SAVINGS, branchId,
+                new BigDecimal("15.00"), null, 0, 2, "balance,desc");
+        assertEquals(List.of("40.00", "30.00"), balances(first.getContent()));
+        assertTrue(first.isHasNext());
+        PageDTO<AccountDTO> second = accountService.getAccounts(null, Account.AccountType.SAVINGS, branchId,
+                new BigDecimal("15.00"), null, 1, 2, "balance,desc");
+        assertEquals(List.of("20.00"), balances(second.getContent()));
+        assertFalse(second.isHasNext());
+
+        PageDTO<AccountSummaryDTO> summaries = accountSummaryService.getAccountSummaries(null, branchId,
+                null, new BigDecimal("100.00"), 0, 10, "accountNumber");
+        assertEquals(4, summaries.getContent().size());
+        assertEquals("PG0" + suffix, summaries.getContent().get(0).getAccountNumber());
+        // The summary balance comes from the joined accounts row, for the filter and the sort alike
+        summaries = accountSummaryService.getAccountSummaries(null, branchId,
+                new BigDecimal("15.00"), new BigDecimal("100.00"), 0, 10, "balance,desc");
+        assertEquals(List.of("40.00", "30.00", "20.00"), summaries.getContent().stream()
+                .map(summary -> summary.getBalance().toPlainString()).toList());
+
+        assertEquals(1, customerService.getCustomers("Paged" + suffix, null, null, null).getContent().size());
+
+        transactionService.deposit(request(firstAccountId, null, TransactionType.DEPOSIT, "1"));
+        PageDTO<TransactionDTO> transactions = transactionService.getTransactions(firstAccountId,
+                TransactionType.DEPOSIT, null, null, "transactionDate,desc");
+        assertEquals(1, transactions.getContent().size());
+        assertEquals(firstAccountId, transactions.getContent().get(0).getAccountId());
+
+        assertThrows(IllegalArgumentException.class, () -> accountService.getAccounts(null, null, null,
+                null, null, 0, 10, "customer.email"));
+    }
+
+    private List<String> balances(List<AccountDTO> accounts) {
+        return accounts.stream()
+                .map(account -> account.getBalance().setScale(2).toPlainString())
+                .collect(Collectors.toList());
+    }
+}
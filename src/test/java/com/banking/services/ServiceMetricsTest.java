@@ -0,0 +1,122 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.exception.IdempotencyConflictException;
+import com.banking.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.banking.TestAccountFactory.request;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ServiceMetricsTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void timesOperationsCountsRefusalsAndRowsAndExportsToPrometheus() throws Exception {
+        Account account = accounts.create(new BigDecimal("10.00"));
+        long rejectedBefore = timerCount("withdraw", "rejected");
+        double refusedBefore = insufficientFunds();
+        long depositsBefore = timerCount("deposit", "success");
+
+        transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "5.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.withdraw(request(account, null, TransactionType.WITHDRAWAL, "50.00")));
+        accountService.getAccountsByCustomerId(account.getCustomer().getCustomerId());
+
+        assertEquals(depositsBefore + 1, timerCount("deposit", "success"));
+        assertEquals(rejectedBefore + 1, timerCount("withdraw", "rejected"));
+        assertEquals(refusedBefore + 1, insufficientFunds());
+        DistributionSummary rows = meterRegistry.find("banking.service.rows")
+                .tags("service", "AccountService", "operation", "getAccountsByCustomerId")
+                .summary();
+        assertEquals(1.0, rows.max());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "banking_service_seconds_bucket{application=\"banking-api\",operation=\"withdraw\"")))
+                .andExpect(content().string(containsString("banking_insufficient_funds_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    // Client mistakes get their own outcomes so the error rate only counts unexpected failures
+    @Test
+    void tagsClientMistakesSeparatelyFromErrors() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        String key = UUID.randomUUID().toString();
+        long notFoundBefore = timerCount("TransactionService", "getTransactionById", "not_found");
+        long conflictsBefore = timerCount("IdempotencyStore", "execute", "conflict");
+        long errorsBefore = timerCount("IdempotencyStore", "execute", "error");
+
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.getTransactionById(-1L));
+        idempotencyStore.execute(key, "deposit", request(account, null, TransactionType.DEPOSIT, "1.00"),
+                claim -> transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "1.00"), claim));
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyStore.execute(key, "deposit",
+                request(account, null, TransactionType.DEPOSIT, "2.00"), claim -> null));
+        assertThrows(UnsupportedOperationException.class, () -> idempotencyStore.execute(
+                UUID.randomUUID().toString(), "deposit", request(account, null, TransactionType.DEPOSIT, "3.00"),
+                claim -> {
+                    throw new UnsupportedOperationException("Unexpected failure");
+                }));
+
+        assertEquals(notFoundBefore + 1, timerCount("TransactionService", "getTransactionById", "not_found"));
+        assertEquals(conflictsBefore + 1, timerCount("IdempotencyStore", "execute", "conflict"));
+        assertEquals(errorsBefore + 1, timerCount("IdempotencyStore", "execute", "error"));
+    }
+
+    private long timerCount(String operation, String outcome) {
+        return timerCount("TransactionService", operation, outcome);
+    }
+
+    private long timerCount(String service, String operation, String outcome) {
+        Timer timer = meterRegistry.find("banking.service")
+                .tags("service", service, "operation", operation, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double insufficientFunds() {
+        Counter counter = meterRegistry.find("banking.insufficient_funds").tag("operation", "withdrawal").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.BatchItemResultDTO;
+import com.banking.dto.BatchResultDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TransactionBatchServiceTest {
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void appliesItemsInOrderPerAccountAndReportsEachResult() {
+        Account first = accounts.create(new BigDecimal("100.00"));
+        Account second = accounts.create(BigDecimal.ZERO);
+
+        List<TransactionDTO> items = new ArrayList<>();
+        items.add(request(first.getAccountId(), null, TransactionType.DEPOSIT, "50.00"));
+        items.add(request(first.getAccountId(), null, TransactionType.WITHDRAWAL, "200.00"));
+        items.add(request(second.getAccountId(), null, TransactionType.DEPOSIT, "10.00"));
+        items.add(request(first.getAccountId(), null, TransactionType.WITHDRAWAL, "120.00"));
+        items.add(request(first.getAccountId(), null, TransactionType.DEPOSIT, null));
+        items.add(request(Integer.MAX_VALUE, null, TransactionType.DEPOSIT, "5.00"));
+        items.add(request(second.getAccountId(), null, TransactionType.TRANSFER, "5.00"));
+
+        BatchResultDTO result = transactionBatchService.ingest(items);
+
+        assertEquals(3, result.getAcceptedCount());
+        assertEquals(4, result.getRejectedCount());
+        assertStatus(result, 0, BatchItemResultDTO.Status.ACCEPTED);
+        assertStatus(result, 1, BatchItemResultDTO.Status.REJECTED);
+        assertStatus(result, 2, BatchItemResultDTO.Status.ACCEPTED);
+        assertStatus(result, 3, BatchItemResultDTO.Status.ACCEPTED);
+        assertStatus(result, 4, BatchItemResultDTO.Status.REJECTED);
+        assertStatus(result, 5, BatchItemResultDTO.Status.REJECTED);
+        assertStatus(result, 6, BatchItemResultDTO.Status.REJECTED);
+        assertEquals("Insufficient funds for withdrawal", result.getResults().get(1).getMessage());
+
+        assertEquals(new BigDecimal("30.00"), accounts.balanceOf(first));
+        assertEquals(new BigDecimal("10.00"), accounts.balanceOf(second));
+        for (int index : new int[]{0, 2, 3}) {
+            Long transactionId = result.getResults().get(index).getTransactionId();
+            assertNotNull(transactionId);
+            assertTrue(transactionRepository.existsById(transactionId));
+        }
+    }
+
+    private void assertStatus(BatchResultDTO result, int index, BatchItemResultDTO.Status expected) {
+        assertEquals(expected, result.getResults().get(index).getStatus(), "item " + index);
+    }
+}
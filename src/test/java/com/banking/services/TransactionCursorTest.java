@@ -0,0 +1,110 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.CursorPageDTO;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TransactionCursorTest {
+
+    private static final int ROWS = 5;
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void encodesToAUrlSafeTokenThatDecodesToTheSamePosition() {
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+        String token = new TransactionCursor(date, 9_876_543_210L).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        TransactionCursor decoded = TransactionCursor.decode(token);
+        assertEquals(date, decoded.getTransactionDate());
+        assertEquals(9_876_543_210L, decoded.getTransactionId());
+    }
+
+    @Test
+    void refusesMalformedCursors() {
+        for (String token : List.of("", "not a cursor", "!!!", encoded("2024-05-01T12:00"),
+                encoded("yesterday|42"), encoded("2024-05-01T12:00|forty-two"))) {
+            assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(token), token);
+        }
+        Account account = accounts.create(BigDecimal.ZERO);
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionsByAccountId(account.getAccountId(), "!!!", PAGE_SIZE));
+    }
+
+    // Every row shares one transaction_date, so only the transaction_id tie-break separates the pages
+    @Test
+    void pagesThroughRowsWithEqualDatesWithoutSkippingOrRepeating() {
+        Account account = accounts.create(BigDecimal.ZERO);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            ids.add(transactionService.deposit(request(account, null, TransactionType.DEPOSIT, "1.00"))
+                    .getTransactionId());
+        }
+        LocalDateTime date = LocalDateTime.of(2001, 2, 3, 4, 5, 6, 789_000);
+        jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE account_id = ?",
+                Timestamp.valueOf(date), account.getAccountId());
+
+        List<Long> newestFirst = readAll(cursor ->
+                transactionService.getTransactionsByAccountId(account.getAccountId(), cursor, PAGE_SIZE));
+        assertEquals(ids.stream().sorted(Comparator.reverseOrder()).toList(), newestFirst);
+
+        List<Long> oldestFirst = readAll(cursor ->
+                transactionService.getTransactionsByDateRange(date, date, cursor, PAGE_SIZE));
+        assertEquals(ids.stream().sorted().toList(), oldestFirst);
+    }
+
+    private List<Long> readAll(Function<String, CursorPageDTO<TransactionDTO>> fetch) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        CursorPageDTO<TransactionDTO> page;
+        do {
+            page = fetch.apply(cursor);
+            assertTrue(page.getContent().size() <= PAGE_SIZE);
+            page.getContent().forEach(transaction -> ids.add(transaction.getTransactionId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasMore());
+        assertNull(cursor);
+        assertFalse(page.isHasMore());
+        assertEquals((ROWS + PAGE_SIZE - 1) / PAGE_SIZE, pages);
+        return ids;
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
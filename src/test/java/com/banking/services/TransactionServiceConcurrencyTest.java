@@ -0,0 +1,67 @@
+package com.banking.services;
+
+import com.banking.TestAccountFactory;
+import com.banking.dto.TransactionDTO;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.banking.TestAccountFactory.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TransactionServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int DEPOSITS_PER_ACCOUNT = 2000;
+    private static final int WITHDRAWALS_ON_FIRST = 1000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestAccountFactory accounts;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentDepositsAndWithdrawalsLoseNoUpdates() throws Exception {
+        Account first = accounts.create(new BigDecimal("1000.00"));
+        Account second = accounts.create(BigDecimal.ZERO);
+        long transactionsBefore = transactionRepository.count();
+
+        List<Callable<TransactionDTO>> requests = new ArrayList<>();
+        for (int i = 0; i < DEPOSITS_PER_ACCOUNT; i++) {
+            requests.add(() -> transactionService.deposit(request(first, null, TransactionType.DEPOSIT, "1")));
+            requests.add(() -> transactionService.deposit(request(second, null, TransactionType.DEPOSIT, "1")));
+            if (i < WITHDRAWALS_ON_FIRST) {
+                requests.add(() -> transactionService.withdraw(request(first, null, TransactionType.WITHDRAWAL, "1")));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<TransactionDTO> result : executor.invokeAll(requests)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(new BigDecimal("2000.00"), accounts.balanceOf(first));
+        assertEquals(new BigDecimal("2000.00"), accounts.balanceOf(second));
+        assertEquals(transactionsBefore + requests.size(), transactionRepository.count());
+    }
+}